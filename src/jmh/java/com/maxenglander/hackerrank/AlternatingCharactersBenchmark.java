@@ -0,0 +1,36 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AlternatingCharactersBenchmark {
+    @Param({"10", "10000", "1000000"})
+    int length;
+
+    String s;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Benchmarks.SEED);
+        StringBuilder sb = new StringBuilder(length);
+
+        for(int i = 0; i < length; i++) {
+            sb.append(random.nextBoolean() ? 'A' : 'B');
+        }
+
+        s = sb.toString();
+    }
+
+    @Benchmark
+    public int alternatingCharacters() {
+        return AlternatingCharacters.alternatingCharacters(s);
+    }
+}
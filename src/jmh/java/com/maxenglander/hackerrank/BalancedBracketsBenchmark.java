@@ -0,0 +1,33 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BalancedBracketsBenchmark {
+    @Param({"10", "10000", "1000000"})
+    int length;
+
+    String s;
+
+    /**
+     * A fully nested, balanced string is the worst case: every brace
+     * is pushed before any is popped.
+     */
+    @Setup
+    public void setUp() {
+        s = new String(InputGenerator.brackets(InputGenerator.Shape.ADVERSARIAL, length, new Random(Benchmarks.SEED)));
+    }
+
+    @Benchmark
+    public String isBalanced() {
+        return BalancedBrackets.isBalanced(s);
+    }
+}
@@ -0,0 +1,36 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BalancedForestBenchmark {
+    /**
+     * The planner is roughly cubic in the number of nodes; beyond a few
+     * hundred nodes a single invocation runs for minutes.
+     */
+    @Param({"10", "30", "100"})
+    int n;
+
+    int[] c;
+    int[][] edges;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Benchmarks.SEED);
+        c = InputGenerator.randomInts(random, n, 1, 100);
+        edges = InputGenerator.treeEdges(InputGenerator.Shape.RANDOM, n, random);
+    }
+
+    @Benchmark
+    public int balancedForest() {
+        return BalancedForest.balancedForest(c, edges);
+    }
+}
@@ -0,0 +1,19 @@
+package com.maxenglander.hackerrank;
+
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+
+/**
+ * Helpers shared by the solver benchmarks. Inputs come from the
+ * InputGenerator builders, always with the same seed, so runs are
+ * comparable across builds.
+ */
+class Benchmarks {
+    static final long SEED = 42L;
+
+    private Benchmarks() {}
+
+    static OutputWriter discardingWriter() {
+        return new OutputWriter(Channels.newChannel(OutputStream.nullOutputStream()));
+    }
+}
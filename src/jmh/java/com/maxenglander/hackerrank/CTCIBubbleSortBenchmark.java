@@ -0,0 +1,64 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class CTCIBubbleSortBenchmark {
+    @Param({"10", "1000", "10000"})
+    int n;
+
+    int[] a;
+    OutputWriter writer;
+
+    @Setup
+    public void setUp() {
+        a = InputGenerator.randomInts(new Random(Benchmarks.SEED), n, 1, 2000000);
+        writer = Benchmarks.discardingWriter();
+    }
+
+    /**
+     * Both sorts work in place, so each invocation works on a fresh
+     * copy; the copy is linear and negligible next to the sort.
+     */
+    @Benchmark
+    public long bubbleSort() {
+        return CTCIBubbleSort.bubbleSort(a.clone());
+    }
+
+    @Benchmark
+    public void countSwaps() throws IOException {
+        CTCIBubbleSort.countSwaps(a.clone(), writer);
+    }
+
+    /**
+     * Swap counts of every window a tenth of the array long.
+     */
+    @Benchmark
+    public long windowSwaps() {
+        long[] total = new long[1];
+
+        CTCIBubbleSort.forEachWindowSwaps(a, Math.max(1, n / 10), swaps -> total[0] += swaps);
+
+        return total[0];
+    }
+
+    @Benchmark
+    public long streamingInversionCounter() {
+        CTCIBubbleSort.StreamingInversionCounter counter = new CTCIBubbleSort.StreamingInversionCounter(null);
+
+        for(int value : a) {
+            counter.accept(value);
+        }
+
+        return counter.getInversions();
+    }
+}
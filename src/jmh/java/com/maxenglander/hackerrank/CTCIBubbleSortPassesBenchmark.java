@@ -0,0 +1,65 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bubble passes that skip sorted stretches, scalar and vectorized,
+ * against the inversion counter, on sorted arrays with a few elements
+ * swapped out of place. Build with -Pjmh,vector, or vectorPasses
+ * measures the scalar fallback.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class CTCIBubbleSortPassesBenchmark {
+    @Param({"10", "1000", "10000"})
+    int n;
+
+    @Param({"0", "4"})
+    int displaced;
+
+    int[] a;
+    CTCIBubbleSort.BubblePasses scalar;
+    CTCIBubbleSort.BubblePasses vector;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Benchmarks.SEED);
+
+        a = InputGenerator.randomInts(random, n, 1, 2000000);
+        Arrays.sort(a);
+
+        for(int k = 0; k < displaced; k++) {
+            int i = random.nextInt(n);
+            int j = random.nextInt(n);
+            int swap = a[i];
+            a[i] = a[j];
+            a[j] = swap;
+        }
+
+        scalar = new CTCIBubbleSort.ScalarBubblePasses();
+        vector = CTCIBubbleSort.bubblePasses();
+    }
+
+    @Benchmark
+    public long scalarPasses() {
+        return CTCIBubbleSort.bubbleSort(a.clone(), scalar);
+    }
+
+    @Benchmark
+    public long vectorPasses() {
+        return CTCIBubbleSort.bubbleSort(a.clone(), vector);
+    }
+
+    @Benchmark
+    public long inversionCounter() {
+        return new CTCIBubbleSort.InversionCounter().sortAndCount(a.clone());
+    }
+}
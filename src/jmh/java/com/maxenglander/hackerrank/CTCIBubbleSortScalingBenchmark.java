@@ -0,0 +1,64 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How the parallel inversion counter scales with threads, against the
+ * sequential counter on the same arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CTCIBubbleSortScalingBenchmark {
+    @Param({"1000000", "10000000"})
+    int n;
+
+    @Param({"1", "2", "4", "8"})
+    int threads;
+
+    int[] a;
+    int[] copy;
+    ForkJoinPool pool;
+    CTCIBubbleSort.InversionCounter sequential;
+    CTCIBubbleSort.ParallelInversionCounter parallel;
+
+    @Setup
+    public void setUp() {
+        a = InputGenerator.randomInts(new Random(Benchmarks.SEED), n, 1, 2000000);
+        copy = new int[n];
+        pool = new ForkJoinPool(threads);
+        sequential = new CTCIBubbleSort.InversionCounter();
+        parallel = new CTCIBubbleSort.ParallelInversionCounter(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Both counters sort in place, so each invocation starts from a
+     * fresh copy of the same unsorted array.
+     */
+    @Setup(Level.Invocation)
+    public void resetCopy() {
+        System.arraycopy(a, 0, copy, 0, n);
+    }
+
+    @Benchmark
+    public long parallel() {
+        return parallel.sortAndCount(copy);
+    }
+
+    @Benchmark
+    public long sequential() {
+        return sequential.sortAndCount(copy);
+    }
+}
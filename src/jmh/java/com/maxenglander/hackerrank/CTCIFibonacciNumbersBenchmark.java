@@ -0,0 +1,21 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CTCIFibonacciNumbersBenchmark {
+    @Param({"10", "20", "30"})
+    int n;
+
+    @Benchmark
+    public int fibonacci() {
+        return CTCIFibonacciNumbers.fibonacci(n);
+    }
+}
@@ -0,0 +1,80 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CTCIIceCreamParlorBenchmark {
+    /**
+     * The number of budgets asked of the same costs by the batch
+     * benchmarks.
+     */
+    static final int BUDGETS = 64;
+
+    @Param({"10", "10000", "1000000"})
+    int n;
+
+    int[] costs;
+    CTCIIceCreamParlor.FlavorIndex index;
+    int money;
+    int[] moneys;
+    OutputWriter writer;
+
+    /**
+     * Only the last two flavors add up to the budget, so every cost is
+     * indexed before the pair is found.
+     */
+    @Setup
+    public void setUp() {
+        costs = InputGenerator.randomInts(new Random(Benchmarks.SEED), n, 1, 1000000);
+        money = 3000000;
+        costs[n - 2] = 1000001;
+        costs[n - 1] = 1999999;
+        writer = Benchmarks.discardingWriter();
+
+        index = CTCIIceCreamParlor.FlavorIndex.of(costs);
+        // Budgets over 2000000 mostly have no pair, so about half of
+        // them make findFlavors index every cost.
+        moneys = InputGenerator.randomInts(new Random(Benchmarks.SEED), BUDGETS, 2, 4000000);
+    }
+
+    @Benchmark
+    public int[][] findFlavorsPerBudget() {
+        int[][] flavorIds = new int[BUDGETS][];
+
+        for(int i = 0; i < BUDGETS; i++) {
+            flavorIds[i] = CTCIIceCreamParlor.findFlavors(costs, moneys[i]);
+        }
+
+        return flavorIds;
+    }
+
+    @Benchmark
+    public long countFlavorPairs() {
+        return CTCIIceCreamParlor.countFlavorPairs(costs, money);
+    }
+
+    @Benchmark
+    public int[] findFlavorsInParallel() {
+        return CTCIIceCreamParlor.findFlavors(costs, money, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public int[][] flavorIndex() {
+        return index.findFlavors(moneys);
+    }
+
+    @Benchmark
+    public void whatFlavors() throws IOException {
+        CTCIIceCreamParlor.whatFlavors(costs, money, writer);
+    }
+}
@@ -0,0 +1,49 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CTCIIceCreamParlorCombinationsBenchmark {
+    @Param({"200", "2000"})
+    int n;
+
+    @Param({"3", "4"})
+    int k;
+
+    int[] costs;
+    int money;
+
+    /**
+     * Only the last k flavors add up to the budget, so every choice of
+     * first flavor is searched.
+     */
+    @Setup
+    public void setUp() {
+        costs = InputGenerator.randomInts(new Random(Benchmarks.SEED), n, 1, 1000000);
+        money = 0;
+
+        for(int i = n - k; i < n; i++) {
+            costs[i] = 1000001 + i;
+            money += costs[i];
+        }
+    }
+
+    @Benchmark
+    public int[] parallel() {
+        return CTCIIceCreamParlor.FlavorCombinations.find(costs, money, k, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public int[] sequential() {
+        return CTCIIceCreamParlor.FlavorCombinations.find(costs, money, k);
+    }
+}
@@ -0,0 +1,24 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CTCIRecursiveStaircaseBenchmark {
+    /**
+     * 36 is the largest height whose count still fits in an int.
+     */
+    @Param({"1", "10", "36"})
+    int n;
+
+    @Benchmark
+    public int stepPerms() {
+        return CTCIRecursiveStaircase.stepPerms(n);
+    }
+}
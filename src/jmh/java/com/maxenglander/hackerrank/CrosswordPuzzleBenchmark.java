@@ -0,0 +1,67 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CrosswordPuzzleBenchmark {
+    @Param({"2", "3", "5"})
+    int acrossWords;
+
+    String[] crossword;
+    String words;
+
+    /**
+     * Lays out a "comb": same-length across slots on every other row,
+     * all hanging off one down slot in the first column. The across
+     * words are listed in the reverse of the only order that fits, so
+     * the solver has to work through most permutations.
+     */
+    @Setup
+    public void setUp() {
+        int height = 2 * acrossWords - 1;
+        int width = 5;
+
+        crossword = new String[height];
+        StringBuilder down = new StringBuilder();
+        String[] across = new String[acrossWords];
+
+        for(int row = 0; row < height; row++) {
+            char[] line = new char[width];
+            Arrays.fill(line, '+');
+            line[0] = '-';
+
+            if(row % 2 == 0) {
+                Arrays.fill(line, '-');
+
+                char first = (char) ('A' + row / 2);
+                across[row / 2] = first + "BCDE".substring(0, width - 1);
+                down.append(first);
+            } else {
+                down.append('Z');
+            }
+
+            crossword[row] = new String(line);
+        }
+
+        StringBuilder wordList = new StringBuilder();
+
+        for(int i = acrossWords - 1; i >= 0; i--) {
+            wordList.append(across[i]).append(';');
+        }
+
+        words = wordList.append(down).toString();
+    }
+
+    @Benchmark
+    public String[] crosswordPuzzle() {
+        return CrosswordPuzzle.crosswordPuzzle(crossword, words);
+    }
+}
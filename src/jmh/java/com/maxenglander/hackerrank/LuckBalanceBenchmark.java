@@ -0,0 +1,60 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LuckBalanceBenchmark {
+    @Param({"10", "10000", "1000000"})
+    int n;
+
+    int[][] contests;
+    int k;
+    LuckBalance.DynamicLuckBalance dynamic;
+    int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Benchmarks.SEED);
+        contests = new int[n][2];
+
+        for(int i = 0; i < n; i++) {
+            contests[i][0] = random.nextInt(10001);
+            contests[i][1] = random.nextInt(2);
+        }
+
+        k = n / 4;
+        dynamic = LuckBalance.DynamicLuckBalance.from(k, contests);
+        next = 0;
+    }
+
+    @Benchmark
+    public long luckBalance() {
+        return LuckBalance.luckBalance(k, contests);
+    }
+
+    /**
+     * One change to the contest set and one to k, each followed by a
+     * read of the balance, as the incremental structure sees them.
+     */
+    @Benchmark
+    public long dynamicLuckBalance() {
+        int[] contest = contests[next];
+        next = next + 1 == n ? 0 : next + 1;
+
+        dynamic.remove(contest[0], contest[1] == 1);
+        dynamic.insert(contest[0], contest[1] == 1);
+        long balance = dynamic.getBalance();
+
+        dynamic.setK(dynamic.getLosableImportantContests() == k ? k + 1 : k);
+
+        return balance + dynamic.getBalance();
+    }
+}
@@ -0,0 +1,33 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MagicSquareFormingBenchmark {
+    /**
+     * The square is always 3x3, so instead of a size the parameter
+     * picks which random square is measured.
+     */
+    @Param({"1", "2", "3"})
+    long seed;
+
+    MagicSquareForming.Square square;
+
+    @Setup
+    public void setUp() {
+        square = MagicSquareForming.Square.from(InputGenerator.randomInts(new Random(seed), 9, 1, 9));
+    }
+
+    @Benchmark
+    public int formingMagicSquare() {
+        return MagicSquareForming.formingMagicSquare(square);
+    }
+}
@@ -0,0 +1,35 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarkAndToysBenchmark {
+    @Param({"10", "10000", "1000000"})
+    int n;
+
+    int[] prices;
+    int k;
+
+    @Setup
+    public void setUp() {
+        prices = InputGenerator.randomInts(new Random(Benchmarks.SEED), n, 1, 1000000000);
+        k = 1000000000;
+    }
+
+    /**
+     * maximumToys sorts its input in place, so each invocation works on
+     * a fresh copy.
+     */
+    @Benchmark
+    public int maximumToys() {
+        return MarkAndToys.maximumToys(prices.clone(), k);
+    }
+}
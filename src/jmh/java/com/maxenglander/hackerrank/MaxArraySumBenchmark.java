@@ -0,0 +1,29 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MaxArraySumBenchmark {
+    @Param({"10", "10000", "1000000"})
+    int n;
+
+    int[] arr;
+
+    @Setup
+    public void setUp() {
+        arr = InputGenerator.randomInts(new Random(Benchmarks.SEED), n, -10000, 10000);
+    }
+
+    @Benchmark
+    public int maxSubsetSum() {
+        return MaxArraySum.maxSubsetSum(arr);
+    }
+}
@@ -0,0 +1,41 @@
+package com.maxenglander.hackerrank;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+// countAdjacencies recurses once per city in a component, which
+// overflows the default thread stack on the larger graphs.
+@Fork(value = 1, jvmArgsAppend = "-Xss512m")
+@State(Scope.Benchmark)
+public class RoadsAndLibrariesBenchmark {
+    @Param({"10", "1000", "100000"})
+    int n;
+
+    int[][] cities;
+
+    /**
+     * Roads are cheaper than libraries, so the solver has to walk every
+     * component rather than taking the library-per-city shortcut.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(Benchmarks.SEED);
+        cities = new int[n][2];
+
+        for(int i = 0; i < n; i++) {
+            cities[i][0] = 1 + random.nextInt(n);
+            cities[i][1] = 1 + random.nextInt(n);
+        }
+    }
+
+    @Benchmark
+    public long roadsAndLibraries() {
+        return RoadsAndLibraries.roadsAndLibraries(n, 5, 1, cities);
+    }
+}
@@ -1,47 +1,72 @@
 package com.maxenglander.hackerrank;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Scanner;
+import java.util.function.IntConsumer;
 
 public class AlternatingCharacters {
-    // Complete the alternatingCharacters function below.
-    static int alternatingCharacters(String s) {
-        int adjacentCount = 0;
-        char lastChar = '\0';
-
-        for(int i = 0; i < s.length(); i++) {
-            char c = s.charAt(i);
+    /**
+     * Counts the characters that repeat their predecessor, one
+     * character at a time.
+     */
+    static class AdjacentCounter implements IntConsumer {
+        private int adjacentCount = 0;
+        private int lastChar = '\0';
 
+        @Override
+        public void accept(int c) {
             if(c == lastChar)
                 adjacentCount++;
 
             lastChar = c;
         }
 
-        return adjacentCount;
+        int getAdjacentCount() {
+            return adjacentCount;
+        }
     }
 
-    private static final Scanner scanner = new Scanner(System.in);
+    // Complete the alternatingCharacters function below.
+    static int alternatingCharacters(String s) {
+        AdjacentCounter counter = new AdjacentCounter();
 
-    public static void main(String[] args) throws IOException {
-        BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(System.getenv("OUTPUT_PATH")));
+        for(int i = 0; i < s.length(); i++) {
+            counter.accept(s.charAt(i));
+        }
 
-        int q = scanner.nextInt();
-        scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+        return counter.getAdjacentCount();
+    }
 
-        for (int qItr = 0; qItr < q; qItr++) {
-            String s = scanner.nextLine();
+    /**
+     * Counts the deletions for the next string of the reader, a byte at
+     * a time.
+     */
+    static int alternatingCharacters(InputReader reader) throws IOException {
+        AdjacentCounter counter = new AdjacentCounter();
 
-            int result = alternatingCharacters(s);
+        reader.forEachTokenByte(counter);
 
-            bufferedWriter.write(String.valueOf(result));
-            bufferedWriter.newLine();
-        }
+        return counter.getAdjacentCount();
+    }
+
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        int q = reader.nextInt();
+
+        QueryExecutor.fromSystemProperties("AlternatingCharacters").execute(q, reader, writer,
+                AlternatingCharacters::alternatingCharacters,
+                InputReader::nextToken,
+                AlternatingCharacters::alternatingCharacters,
+                (w, result) -> w.write(result).newLine());
+    }
+
+    public static void main(String[] args) throws IOException {
+        OutputWriter writer = OutputWriter.fromEnvironment();
+
+        InputReader reader = InputReader.from(System.in);
+
+        run(reader, writer);
 
-        bufferedWriter.close();
+        writer.close();
 
-        scanner.close();
+        reader.close();
     }
 }
@@ -1,14 +1,53 @@
 package com.maxenglander.hackerrank;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Stack;
+import java.util.function.IntConsumer;
 
 public class BalancedBrackets {
+    /**
+     * Matches braces one character at a time against a primitive stack
+     * of the closing braces still expected. Once a mismatch is seen the
+     * remaining characters are ignored.
+     */
+    static class BraceMatcher implements IntConsumer {
+        private int[] expectedClosers = new int[16];
+        private int depth = 0;
+        private boolean mismatched = false;
+
+        @Override
+        public void accept(int c) {
+            if(mismatched) return;
+
+            int closer = closerFor(c);
+
+            if(closer != -1) {
+                if(depth == expectedClosers.length)
+                    expectedClosers = Arrays.copyOf(expectedClosers, depth * 2);
+
+                expectedClosers[depth++] = closer;
+            } else if(depth == 0 || expectedClosers[--depth] != c) {
+                mismatched = true;
+            }
+        }
+
+        private static int closerFor(int c) {
+            switch(c) {
+                case '[': return ']';
+                case '(': return ')';
+                case '{': return '}';
+                default: return -1;
+            }
+        }
+
+        boolean isBalanced() {
+            return !mismatched && depth == 0;
+        }
+    }
+
     static Map<Character, Character> OPEN_TO_CLOSE_BRACES = new HashMap<>();
     static {
         OPEN_TO_CLOSE_BRACES.put('[', ']');
@@ -38,7 +77,23 @@ public class BalancedBrackets {
         if(openBraces.size() > 0)
             return "NO";
 
-        System.err.println("Balanced");
+        if(Diagnostics.TRACE) Diagnostics.trace("Balanced");
+        return "YES";
+    }
+
+    /**
+     * Matches the brackets of the next string of the reader as they are
+     * read.
+     */
+    static String isBalanced(InputReader reader) throws IOException {
+        BraceMatcher matcher = new BraceMatcher();
+
+        reader.forEachTokenByte(matcher);
+
+        if(!matcher.isBalanced())
+            return "NO";
+
+        if(Diagnostics.TRACE) Diagnostics.trace("Balanced");
         return "YES";
     }
 
@@ -46,25 +101,25 @@ public class BalancedBrackets {
         return OPEN_TO_CLOSE_BRACES.containsKey(c);
     }
 
-    private static final Scanner scanner = new Scanner(System.in);
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        int t = reader.nextInt();
 
-    public static void main(String[] args) throws IOException {
-        BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(System.getenv("OUTPUT_PATH")));
-
-        int t = scanner.nextInt();
-        scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+        QueryExecutor.fromSystemProperties("BalancedBrackets").execute(t, reader, writer,
+                BalancedBrackets::isBalanced,
+                InputReader::nextToken,
+                BalancedBrackets::isBalanced,
+                (w, result) -> w.write(result).newLine());
+    }
 
-        for (int tItr = 0; tItr < t; tItr++) {
-            String s = scanner.nextLine();
+    public static void main(String[] args) throws IOException {
+        OutputWriter writer = OutputWriter.fromEnvironment();
 
-            String result = isBalanced(s);
+        InputReader reader = InputReader.from(System.in);
 
-            bufferedWriter.write(result);
-            bufferedWriter.newLine();
-        }
+        run(reader, writer);
 
-        bufferedWriter.close();
+        writer.close();
 
-        scanner.close();
+        reader.close();
     }
 }
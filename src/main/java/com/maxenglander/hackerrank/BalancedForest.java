@@ -1,7 +1,5 @@
 package com.maxenglander.hackerrank;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.*;
@@ -13,6 +11,8 @@ import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
 public class BalancedForest {
+    private static final Metrics.Phases PHASES = Metrics.phases("BalancedForest");
+
     static class Forest {
         static final Forest EMPTY = new Forest();
 
@@ -249,6 +249,8 @@ public class BalancedForest {
     }
 
     static class ForestPlanner implements Tree.Traversal.Visitor<Tree.Node> {
+        private static final Metrics.Counter PLANS = Metrics.counter("BalancedForest.plans");
+
         Tree.Checkpoint checkpoint;
         Comparator<Forest> comparator;
         Tree.Cutter cutter;
@@ -300,6 +302,8 @@ public class BalancedForest {
 
             List<Forest> plans = makePlans(cut.first(), cut.second());
 
+            if(Metrics.ENABLED) PLANS.add(plans.size());
+
             // After we finish making all of our plans,
             // we can rollback changes we made to the tree.
             checkpoint.rollback();
@@ -374,6 +378,31 @@ public class BalancedForest {
 
     }
 
+    static class Query {
+        final int[] c;
+        final int[][] edges;
+
+        Query(int[] c, int[][] edges) {
+            this.c = c;
+            this.edges = edges;
+        }
+
+        static Query parse(InputReader reader) throws IOException {
+            int n = reader.nextInt();
+
+            int[] c = reader.nextIntArray(n);
+
+            int[][] edges = new int[n - 1][2];
+
+            for (int i = 0; i < n - 1; i++) {
+                edges[i][0] = reader.nextInt();
+                edges[i][1] = reader.nextInt();
+            }
+
+            return new Query(c, edges);
+        }
+    }
+
     static class Tuple<First, Second> {
         First first;
         Second second;
@@ -982,8 +1011,8 @@ public class BalancedForest {
         private Tree() {}
     }
 
-    private static int balancedForest(int[] c, int[][] edges) {
-        Tree.Printer printer = new Tree.Printer(System.err);
+    static int balancedForest(int[] c, int[][] edges) {
+        long started = Metrics.nanoTime();
 
         // Create tree
         Tree.Node originalTree = Tree.Builder.newBuilder()
@@ -1008,8 +1037,13 @@ public class BalancedForest {
                 .withCheckpoint(checkpoint)
                 .transform(sumTree);
 
-        //originalTree.traverse(printer);
-        //sumTree.traverse(printer);
+        PHASES.build.recordSince(started);
+
+        if(Diagnostics.TRACE) {
+            Tree.Printer printer = new Tree.Printer(Diagnostics.stream());
+            originalTree.traverse(printer);
+            sumTree.traverse(printer);
+        }
 
         // Create a balance evaluator
         Predicate<Forest> balanced
@@ -1030,7 +1064,7 @@ public class BalancedForest {
         // subtract the value of the the descendant from that of the parent.
         Tree.Cutter cutAndUpdateSum = Tree.Cutters.parentCloningAndChildValueSubtracting();
 
-        System.err.println("Beginning to plan forest");
+        if(Diagnostics.DEBUG) Diagnostics.debug("Beginning to plan forest");
 
         // Plan our forest:
         Forest forest = ForestPlanner.plan(
@@ -1046,7 +1080,7 @@ public class BalancedForest {
                 // Use our sum tree
                 snapshottableSumTree);
 
-        System.err.println("Final forest: " + forest.toString());
+        if(Diagnostics.DEBUG) Diagnostics.debug("Final forest: " + forest.toString());
 
         if(!balanced.test(forest)) {
             return -1;
@@ -1070,48 +1104,24 @@ public class BalancedForest {
         }
     }
 
-    private static final Scanner scanner = new Scanner(System.in);
-
-    public static void main(String[] args) throws IOException {
-        BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(System.getenv("OUTPUT_PATH")));
-
-        int q = scanner.nextInt();
-        scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
-
-        for (int qItr = 0; qItr < q; qItr++) {
-            int n = scanner.nextInt();
-            scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
-
-            int[] c = new int[n];
-
-            String[] cItems = scanner.nextLine().split(" ");
-            scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
-
-            for (int i = 0; i < n; i++) {
-                int cItem = Integer.parseInt(cItems[i]);
-                c[i] = cItem;
-            }
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        int q = reader.nextInt();
 
-            int[][] edges = new int[n - 1][2];
-
-            for (int i = 0; i < n - 1; i++) {
-                String[] edgesRowItems = scanner.nextLine().split(" ");
-                scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+        QueryExecutor.fromSystemProperties("BalancedForest").execute(q, reader, writer,
+                Query::parse,
+                query -> balancedForest(query.c, query.edges),
+                (w, result) -> w.write(result).newLine());
+    }
 
-                for (int j = 0; j < 2; j++) {
-                    int edgesItem = Integer.parseInt(edgesRowItems[j]);
-                    edges[i][j] = edgesItem;
-                }
-            }
+    public static void main(String[] args) throws IOException {
+        OutputWriter writer = OutputWriter.fromEnvironment();
 
-            int result = balancedForest(c, edges);
+        InputReader reader = InputReader.from(System.in);
 
-            bufferedWriter.write(String.valueOf(result));
-            bufferedWriter.newLine();
-        }
+        run(reader, writer);
 
-        bufferedWriter.close();
+        writer.close();
 
-        scanner.close();
+        reader.close();
     }
 }
@@ -1,9 +1,146 @@
 package com.maxenglander.hackerrank;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.Scanner;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 
 public class CTCIBubbleSort {
+    private static final Metrics.Phases PHASES = Metrics.phases("CTCIBubbleSort");
+
+    /**
+     * One counter per thread, so repeated countSwaps calls, as in the
+     * SolverServer, reuse its scratch buffer instead of allocating one
+     * every time.
+     */
+    private static final ThreadLocal<InversionCounter> INVERSION_COUNTER = ThreadLocal.withInitial(InversionCounter::new);
+
+    /**
+     * The problem's bounds on element values.
+     */
+    static final int MIN_VALUE = 1;
+    static final int MAX_VALUE = 2000000;
+
+    static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Vectorized when built with -Pvector and started with
+     * --add-modules jdk.incubator.vector, and scalar otherwise.
+     */
+    static final BubblePasses BUBBLE_PASSES = bubblePasses();
+
+    /**
+     * A binary indexed tree of counts over the positions [0, size).
+     */
+    static class FenwickTree {
+        private final int[] tree;
+
+        FenwickTree(int size) {
+            this.tree = new int[size + 1];
+        }
+
+        void add(int position, int delta) {
+            for(int i = position + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        /**
+         * The total count at positions [0, position].
+         */
+        int prefixSum(int position) {
+            int sum = 0;
+
+            for(int i = position + 1; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+
+            return sum;
+        }
+
+        int size() {
+            return tree.length - 1;
+        }
+    }
+
+    /**
+     * Receives the running result after each element of a stream.
+     */
+    interface SwapListener {
+        void accept(long swaps, int first, int last);
+    }
+
+    /**
+     * Keeps the swap count, minimum and maximum of a stream of elements
+     * as they arrive, in O(log range) each. An arriving element adds one
+     * inversion for every earlier element greater than it, which a
+     * Fenwick tree of counts by value answers.
+     *
+     * Values are not known ahead of time, so they cannot be compressed;
+     * the tree instead spans a fixed value range, by default the one the
+     * problem allows.
+     */
+    static class StreamingInversionCounter implements IntConsumer {
+        private final FenwickTree counts;
+        private final int minValue;
+        private final SwapListener listener;
+
+        private long inversions = 0;
+        private int seen = 0;
+        private int first = Integer.MAX_VALUE;
+        private int last = Integer.MIN_VALUE;
+
+        StreamingInversionCounter(SwapListener listener) {
+            this(MIN_VALUE, MAX_VALUE, listener);
+        }
+
+        StreamingInversionCounter(int minValue, int maxValue, SwapListener listener) {
+            this.counts = new FenwickTree(maxValue - minValue + 1);
+            this.minValue = minValue;
+            this.listener = listener;
+        }
+
+        @Override
+        public void accept(int value) {
+            int position = value - minValue;
+
+            if(position < 0 || position >= counts.size())
+                throw new IllegalArgumentException("Value out of range: " + value);
+
+            inversions += seen - counts.prefixSum(position);
+            counts.add(position, 1);
+            seen++;
+
+            if(value < first) first = value;
+            if(value > last) last = value;
+
+            if(listener != null)
+                listener.accept(inversions, first, last);
+        }
+
+        int getFirst() {
+            return first;
+        }
+
+        long getInversions() {
+            return inversions;
+        }
+
+        int getLast() {
+            return last;
+        }
+    }
+
     static int[] argsToIntArray(String[] args) {
         int n = Integer.parseInt(args[0]);
         int[] a = new int[n];
@@ -15,28 +152,410 @@ public class CTCIBubbleSort {
         return a;
     }
 
-    static int[] streamToIntArray(InputStream stream) {
-        Scanner scanner = new Scanner(System.in);
-        int n = scanner.nextInt();
-        scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+    static int[] readerToIntArray(InputReader reader) throws IOException {
+        int n = reader.nextInt();
 
-        int[] a = new int[n];
+        return reader.nextIntArray(n);
+    }
 
-        String[] aItems = scanner.nextLine().split(" ");
-        scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+    /**
+     * Reads the same input as readerToIntArray, but hands each element's
+     * running result to the listener instead of building the array.
+     */
+    static StreamingInversionCounter streamSwaps(InputReader reader, SwapListener listener) throws IOException {
+        int n = reader.nextInt();
+        StreamingInversionCounter counter = new StreamingInversionCounter(listener);
 
-        for (int i = 0; i < n; i++) {
-            int aItem = Integer.parseInt(aItems[i]);
-            a[i] = aItem;
+        reader.forEachInt(n, counter);
+
+        return counter;
+    }
+
+    static int[] streamToIntArray(InputStream stream) throws IOException {
+        return readerToIntArray(InputReader.from(stream));
+    }
+
+    /**
+     * Counts inversions, the number of swaps a bubble sort would make,
+     * by sorting with a merge sort. Whenever an element is merged from
+     * the right run, it jumps every element left in the left run, which
+     * is that many inversions. Short runs are insertion sorted, where
+     * every shift is one inversion.
+     *
+     * The scratch buffer grows to the largest array seen and is reused,
+     * so one counter can be kept for many arrays.
+     */
+    static class InversionCounter {
+        static final int INSERTION_SORT_CUTOFF = 32;
+
+        private int[] scratch = new int[0];
+
+        /**
+         * Sorts a in place and returns its number of inversions.
+         */
+        long sortAndCount(int[] a) {
+            if(scratch.length < a.length)
+                scratch = new int[a.length];
+
+            return sortAndCount(a, scratch, 0, a.length);
         }
 
-        return a;
+        static long sortAndCount(int[] a, int[] scratch, int from, int to) {
+            if(to - from <= INSERTION_SORT_CUTOFF)
+                return insertionSort(a, from, to);
+
+            int middle = (from + to) >>> 1;
+
+            long inversions = sortAndCount(a, scratch, from, middle)
+                    + sortAndCount(a, scratch, middle, to);
+
+            return inversions + merge(a, scratch, from, middle, to);
+        }
+
+        static long insertionSort(int[] a, int from, int to) {
+            long inversions = 0;
+
+            for(int i = from + 1; i < to; i++) {
+                int value = a[i];
+                int j = i - 1;
+
+                while(j >= from && a[j] > value) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+
+                a[j + 1] = value;
+                inversions += i - 1 - j;
+            }
+
+            return inversions;
+        }
+
+        /**
+         * Merges the sorted runs a[from..middle) and a[middle..to) and
+         * returns the inversions between them. Only the left run is
+         * copied out, into the same range of scratch.
+         */
+        static long merge(int[] a, int[] scratch, int from, int middle, int to) {
+            // Runs that are already in order need no merging.
+            if(a[middle - 1] <= a[middle])
+                return 0;
+
+            System.arraycopy(a, from, scratch, from, middle - from);
+
+            long inversions = 0;
+            int i = from;
+            int j = middle;
+            int k = from;
+
+            while(i < middle && j < to) {
+                if(scratch[i] <= a[j]) {
+                    a[k++] = scratch[i++];
+                } else {
+                    a[k++] = a[j++];
+                    inversions += middle - i;
+                }
+            }
+
+            System.arraycopy(scratch, i, a, k, middle - i);
+
+            return inversions;
+        }
     }
 
-    // Complete the countSwaps function below.
-    static void countSwaps(int[] a) {
-        int passSwaps = 0,
-            totalSwaps = 0;
+    /**
+     * Counts inversions like InversionCounter, with the two halves of
+     * every run sorted and counted in parallel on a fork-join pool.
+     * Runs at or below the cutoff are left to InversionCounter, and one
+     * scratch array for the whole input is allocated up front. Merging
+     * is sequential, so the final merges bound the speedup.
+     */
+    static class ParallelInversionCounter {
+        static final int SEQUENTIAL_CUTOFF = 1 << 13;
+
+        private class SortAndCount extends RecursiveTask<Long> {
+            private static final long serialVersionUID = 1L;
+
+            private final int[] a;
+            private final int[] scratch;
+            private final int from;
+            private final int to;
+
+            SortAndCount(int[] a, int[] scratch, int from, int to) {
+                this.a = a;
+                this.scratch = scratch;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected Long compute() {
+                if(to - from <= cutoff)
+                    return InversionCounter.sortAndCount(a, scratch, from, to);
+
+                int middle = (from + to) >>> 1;
+
+                SortAndCount left = new SortAndCount(a, scratch, from, middle);
+                left.fork();
+
+                long inversions = new SortAndCount(a, scratch, middle, to).compute();
+                inversions += left.join();
+
+                return inversions + InversionCounter.merge(a, scratch, from, middle, to);
+            }
+        }
+
+        private final ForkJoinPool pool;
+        private final int cutoff;
+
+        ParallelInversionCounter(ForkJoinPool pool) {
+            this(pool, SEQUENTIAL_CUTOFF);
+        }
+
+        ParallelInversionCounter(ForkJoinPool pool, int cutoff) {
+            this.pool = pool;
+            this.cutoff = Math.max(cutoff, InversionCounter.INSERTION_SORT_CUTOFF);
+        }
+
+        /**
+         * Sorts a in place and returns its number of inversions.
+         */
+        long sortAndCount(int[] a) {
+            return pool.invoke(new SortAndCount(a, new int[a.length], 0, a.length));
+        }
+    }
+
+    /**
+     * Counts the inversions of a file of big-endian ints, as written by
+     * DataOutputStream, that may be too big for the heap. The file is
+     * cut into runs of at most runLength ints, each mapped into memory,
+     * sorted and counted with InversionCounter, and written back to a
+     * scratch file of sorted runs. A k-way merge of the sorted runs then
+     * counts the inversions between runs: ties go to the earlier run, so
+     * every element still waiting in an earlier run when an element is
+     * merged is greater than it, and a Fenwick tree over the runs keeps
+     * how many are waiting.
+     *
+     * The heap holds two int arrays of runLength plus O(runs), whatever
+     * the size of the file.
+     */
+    static class ExternalInversionCounter {
+        static final int DEFAULT_RUN_LENGTH = 1 << 22;
+
+        private final int runLength;
+        private final Path scratchDirectory;
+
+        private long inversions = 0;
+        private int first = Integer.MAX_VALUE;
+        private int last = Integer.MIN_VALUE;
+
+        ExternalInversionCounter() {
+            this(DEFAULT_RUN_LENGTH, null);
+        }
+
+        /**
+         * Sorted runs are written to a scratch file in scratchDirectory,
+         * or in the default temporary directory if it is null.
+         */
+        ExternalInversionCounter(int runLength, Path scratchDirectory) {
+            if(runLength < 1)
+                throw new IllegalArgumentException("Runs must hold at least one element: " + runLength);
+
+            this.runLength = runLength;
+            this.scratchDirectory = scratchDirectory;
+        }
+
+        /**
+         * Counts the inversions of the ints in file, and keeps its
+         * smallest and largest elements, without changing the file.
+         */
+        long count(Path file) throws IOException {
+            Path runsFile = scratchDirectory == null
+                    ? Files.createTempFile("inversions", ".runs")
+                    : Files.createTempFile(scratchDirectory, "inversions", ".runs");
+
+            try(FileChannel input = FileChannel.open(file, StandardOpenOption.READ);
+                FileChannel runs = FileChannel.open(runsFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long bytes = input.size();
+
+                if(bytes % Integer.BYTES != 0)
+                    throw new IOException("File does not hold whole ints: " + file);
+                if(bytes / Integer.BYTES > Integer.MAX_VALUE)
+                    throw new IOException("File holds more than " + Integer.MAX_VALUE + " ints: " + file);
+
+                int n = (int) (bytes / Integer.BYTES);
+
+                inversions = sortRuns(input, runs, n);
+                inversions += mergeRuns(runs, n);
+            } finally {
+                Files.deleteIfExists(runsFile);
+            }
+
+            return inversions;
+        }
+
+        int getFirst() {
+            return first;
+        }
+
+        long getInversions() {
+            return inversions;
+        }
+
+        int getLast() {
+            return last;
+        }
+
+        private static IntBuffer map(FileChannel channel, FileChannel.MapMode mode, long from, int length) throws IOException {
+            return channel.map(mode, from * Integer.BYTES, (long) length * Integer.BYTES)
+                    .order(ByteOrder.BIG_ENDIAN)
+                    .asIntBuffer();
+        }
+
+        /**
+         * Merges the sorted runs, keeping the first and last elements,
+         * and returns the inversions between runs.
+         */
+        private long mergeRuns(FileChannel runs, int n) throws IOException {
+            int numRuns = (int) ((n + (long) runLength - 1) / runLength);
+            IntBuffer[] buffers = new IntBuffer[numRuns];
+            int[] heads = new int[numRuns];
+            int[] heap = new int[numRuns];
+            int size = 0;
+            FenwickTree waiting = new FenwickTree(numRuns);
+            long crossInversions = 0;
+
+            for(int run = 0; run < numRuns; run++) {
+                long from = (long) run * runLength;
+                int length = (int) Math.min(runLength, n - from);
+
+                buffers[run] = map(runs, FileChannel.MapMode.READ_ONLY, from, length);
+                heads[run] = buffers[run].get();
+                waiting.add(run, length);
+                heap[size] = run;
+                siftUp(heap, heads, size++);
+            }
+
+            for(int merged = 0; merged < n; merged++) {
+                int run = heap[0];
+                int value = heads[run];
+
+                if(run > 0)
+                    crossInversions += waiting.prefixSum(run - 1);
+                waiting.add(run, -1);
+
+                if(merged == 0) first = value;
+                last = value;
+
+                if(buffers[run].hasRemaining()) {
+                    heads[run] = buffers[run].get();
+                } else {
+                    buffers[run] = null;
+                    heap[0] = heap[--size];
+                }
+
+                siftDown(heap, heads, size);
+            }
+
+            return crossInversions;
+        }
+
+        /**
+         * Whether run a merges before run b: the smaller head first, and
+         * the earlier run on a tie.
+         */
+        private static boolean precedes(int[] heads, int a, int b) {
+            return heads[a] < heads[b] || (heads[a] == heads[b] && a < b);
+        }
+
+        private static void siftDown(int[] heap, int[] heads, int size) {
+            int i = 0;
+
+            while(true) {
+                int child = 2 * i + 1;
+
+                if(child >= size) return;
+                if(child + 1 < size && precedes(heads, heap[child + 1], heap[child]))
+                    child++;
+                if(!precedes(heads, heap[child], heap[i])) return;
+
+                int swap = heap[i];
+                heap[i] = heap[child];
+                heap[child] = swap;
+                i = child;
+            }
+        }
+
+        private static void siftUp(int[] heap, int[] heads, int i) {
+            while(i > 0) {
+                int parent = (i - 1) / 2;
+
+                if(!precedes(heads, heap[i], heap[parent])) return;
+
+                int swap = heap[i];
+                heap[i] = heap[parent];
+                heap[parent] = swap;
+                i = parent;
+            }
+        }
+
+        /**
+         * Sorts each run of input into the same place in runs, and
+         * returns the inversions within runs.
+         */
+        private long sortRuns(FileChannel input, FileChannel runs, int n) throws IOException {
+            int[] run = new int[Math.min(runLength, n)];
+            int[] scratch = new int[run.length];
+            long runInversions = 0;
+
+            for(long from = 0; from < n; from += runLength) {
+                int length = (int) Math.min(runLength, n - from);
+
+                map(input, FileChannel.MapMode.READ_ONLY, from, length).get(run, 0, length);
+                runInversions += InversionCounter.sortAndCount(run, scratch, 0, length);
+                map(runs, FileChannel.MapMode.READ_WRITE, from, length).put(run, 0, length);
+            }
+
+            return runInversions;
+        }
+    }
+
+    /**
+     * Finds where the next bubble pass has work to do.
+     */
+    interface BubblePasses {
+        /**
+         * The first i in [from, to - 1) where a[i] > a[i + 1], or to - 1
+         * if a[from..to) is already sorted.
+         */
+        int firstDescent(int[] a, int from, int to);
+    }
+
+    static class ScalarBubblePasses implements BubblePasses {
+        @Override
+        public int firstDescent(int[] a, int from, int to) {
+            return scan(a, from, to);
+        }
+
+        static int scan(int[] a, int from, int to) {
+            int i = from;
+
+            while(i < to - 1 && a[i] <= a[i + 1]) {
+                i++;
+            }
+
+            return Math.min(i, to - 1);
+        }
+    }
+
+    /**
+     * Sorts a with the bubble sort the problem describes, and returns
+     * the number of swaps made. O(n^2); countSwaps gets the same count
+     * from an InversionCounter.
+     */
+    static long bubbleSort(int[] a) {
+        long passSwaps = 0,
+             totalSwaps = 0;
 
         do {
             passSwaps = 0;
@@ -56,20 +575,222 @@ public class CTCIBubbleSort {
             totalSwaps += passSwaps;
         } while(passSwaps > 0);
 
-        System.out.println("Array is sorted in " + totalSwaps + " swaps.");
-        System.out.println("First Element: " + a[0]);
-        System.out.println("Last Element: " + a[a.length - 1]);
+        return totalSwaps;
     }
 
-    public static void main(String[] args) {
+    /**
+     * Sorts a with the same swaps as bubbleSort, and returns how many
+     * there were, but skips the stretches where a pass would only
+     * compare. Between swaps a pass just carries the larger element
+     * along, so each pass jumps from one descent to the next with
+     * firstDescent, and stops at the last swap of the pass before,
+     * past which everything is in place.
+     */
+    static long bubbleSort(int[] a, BubblePasses passes) {
+        long totalSwaps = 0;
+        int end = a.length;
+
+        while(end > 1) {
+            int i = passes.firstDescent(a, 0, end);
+            int lastSwap = 0;
+
+            while(i < end - 1) {
+                int carried = a[i];
+
+                do {
+                    a[i] = a[i + 1];
+                    i++;
+                    totalSwaps++;
+                } while(i < end - 1 && a[i + 1] < carried);
+
+                a[i] = carried;
+                lastSwap = i;
+                i = passes.firstDescent(a, i, end);
+            }
+
+            end = lastSwap;
+        }
+
+        return totalSwaps;
+    }
+
+    /**
+     * Loads VectorBubblePasses if the Vector API module is present, and
+     * falls back to ScalarBubblePasses if it is not or fails to load,
+     * as it does when the build left it out.
+     * The class is named by string so that it is never resolved
+     * without the module.
+     */
+    static BubblePasses bubblePasses() {
+        if(ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (BubblePasses) Class.forName("com.maxenglander.hackerrank.VectorBubblePasses")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch(ReflectiveOperationException | LinkageError e) {
+                if(Diagnostics.WARN) Diagnostics.warn("Falling back to scalar bubble passes: " + e);
+            }
+        }
+
+        return new ScalarBubblePasses();
+    }
+
+    /**
+     * Replaces each value with its rank among the distinct values, so
+     * that a Fenwick tree over ranks needs only as many positions as
+     * there are distinct values.
+     */
+    static int[] compress(int[] a) {
+        int[] distinct = a.clone();
+        Arrays.sort(distinct);
+
+        int size = 0;
+
+        for(int i = 0; i < distinct.length; i++) {
+            if(i == 0 || distinct[i] != distinct[i - 1])
+                distinct[size++] = distinct[i];
+        }
+
+        int[] ranks = new int[a.length];
+
+        for(int i = 0; i < a.length; i++) {
+            ranks[i] = Arrays.binarySearch(distinct, 0, size, a[i]);
+        }
+
+        return ranks;
+    }
+
+    /**
+     * Hands the swap count of every window of a, in order, to the
+     * consumer. Windows slide one element at a time over a Fenwick
+     * tree of compressed values: the leaving element takes its
+     * inversions with smaller elements to its right, and the arriving
+     * element brings one for every larger element to its left. Each
+     * slide costs O(log n).
+     */
+    static void forEachWindowSwaps(int[] a, int window, LongConsumer consumer) {
+        if(window < 1)
+            throw new IllegalArgumentException("Window must hold at least one element: " + window);
+
+        if(window > a.length) return;
+
+        int[] ranks = compress(a);
+        FenwickTree counts = new FenwickTree(a.length);
+        long inversions = 0;
+
+        for(int i = 0; i < window; i++) {
+            inversions += i - counts.prefixSum(ranks[i]);
+            counts.add(ranks[i], 1);
+        }
+
+        consumer.accept(inversions);
+
+        for(int i = window; i < a.length; i++) {
+            int leaving = ranks[i - window];
+
+            counts.add(leaving, -1);
+            inversions -= leaving == 0 ? 0 : counts.prefixSum(leaving - 1);
+
+            inversions += (window - 1) - counts.prefixSum(ranks[i]);
+            counts.add(ranks[i], 1);
+
+            consumer.accept(inversions);
+        }
+    }
+
+    // Complete the countSwaps function below.
+    static void countSwaps(int[] a, OutputWriter writer) throws IOException {
+        // Sorted input, common in practice, is confirmed in one scan and
+        // needs no sort at all.
+        long totalSwaps = 0;
+
+        if(BUBBLE_PASSES.firstDescent(a, 0, a.length) < a.length - 1)
+            totalSwaps = sortAndCountInversions(a);
+
+        printSwaps(writer, totalSwaps, a);
+    }
+
+    /**
+     * Counts the swaps for an array kept on disk as big-endian ints,
+     * with an ExternalInversionCounter, so the array need not fit in
+     * the heap.
+     */
+    static void countSwaps(Path file, OutputWriter writer) throws IOException {
+        ExternalInversionCounter counter = new ExternalInversionCounter();
+        long totalSwaps = counter.count(file);
+
+        if(totalSwaps == 0 && counter.getFirst() > counter.getLast())
+            throw new IOException("File holds no ints: " + file);
+
+        printSwaps(writer, totalSwaps, counter.getFirst(), counter.getLast());
+    }
+
+    /**
+     * Sorts a and counts its inversions, in parallel if
+     * hackerrank.parallelism asks for it and a is big enough to split.
+     */
+    static long sortAndCountInversions(int[] a) {
+        if(a.length > ParallelInversionCounter.SEQUENTIAL_CUTOFF) {
+            ForkJoinPool pool = QueryExecutor.poolFromSystemProperties();
+
+            if(pool != null)
+                return new ParallelInversionCounter(pool).sortAndCount(a);
+        }
+
+        return INVERSION_COUNTER.get().sortAndCount(a);
+    }
+
+    /**
+     * Prints the swap count and the first and last elements of the
+     * sorted array.
+     */
+    static void printSwaps(OutputWriter writer, long totalSwaps, int[] sorted) throws IOException {
+        printSwaps(writer, totalSwaps, sorted[0], sorted[sorted.length - 1]);
+    }
+
+    static void printSwaps(OutputWriter writer, long totalSwaps, int first, int last) throws IOException {
+        writer.write("Array is sorted in ").write(totalSwaps).write(" swaps.").newLine();
+        writer.write("First Element: ").write(first).newLine();
+        writer.write("Last Element: ").write(last).newLine();
+    }
+
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        long started = Metrics.nanoTime();
+        int[] a = readerToIntArray(reader);
+        PHASES.parse.recordSince(started);
+
+        // countSwaps prints as it goes, so writing is part of solving.
+        started = Metrics.nanoTime();
+        countSwaps(a, writer);
+        PHASES.solve.recordSince(started);
+    }
+
+    /**
+     * Reads the array from the arguments or stdin, or with --file PATH
+     * counts the swaps of a binary int file out of core.
+     */
+    public static void main(String[] args) throws IOException {
         final int[] intArray;
 
+        if(args.length == 2 && args[0].equals("--file")) {
+            OutputWriter writer = OutputWriter.toStandardOutput();
+
+            countSwaps(Paths.get(args[1]), writer);
+
+            writer.close();
+            return;
+        }
+
         if(args.length > 0) {
             intArray = argsToIntArray(args);
         } else {
             intArray = streamToIntArray(System.in);
         }
 
-        countSwaps(intArray);
+        OutputWriter writer = OutputWriter.toStandardOutput();
+
+        countSwaps(intArray, writer);
+
+        writer.close();
     }
 }
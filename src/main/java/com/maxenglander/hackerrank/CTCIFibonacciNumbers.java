@@ -1,8 +1,9 @@
 package com.maxenglander.hackerrank;
 
-import java.util.*;
+import java.io.IOException;
 
 public class CTCIFibonacciNumbers {
+    private static final Metrics.Phases PHASES = Metrics.phases("CTCIFibonacciNumbers");
 
     public static int fibonacci(int n) {
         if(n < 0) return -1;
@@ -13,10 +14,21 @@ public class CTCIFibonacciNumbers {
     }
 
 
-    public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
-        int n = scanner.nextInt();
-        scanner.close();
-        System.out.println(fibonacci(n));
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        int n = reader.nextInt();
+
+        long started = Metrics.nanoTime();
+        int result = fibonacci(n);
+        PHASES.solve.recordSince(started);
+
+        writer.write(result).newLine();
+    }
+
+    public static void main(String[] args) throws IOException {
+        InputReader reader = InputReader.from(System.in);
+        OutputWriter writer = OutputWriter.toStandardOutput();
+        run(reader, writer);
+        reader.close();
+        writer.close();
     }
 }
\ No newline at end of file
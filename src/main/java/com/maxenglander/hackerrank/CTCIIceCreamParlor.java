@@ -1,62 +1,1104 @@
 package com.maxenglander.hackerrank;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 public class CTCIIceCreamParlor {
+    /**
+     * A direct table costs money + 1 ints however few costs there are,
+     * so it is only used when money is within a small multiple of the
+     * number of costs, where a hashed index would be about as big.
+     */
+    static final int DIRECT_ADDRESS_COSTS_FACTOR = 4;
 
-    static void printFlavors(int flavorIdOne, int flavorIdTwo) {
-        int firstFlavor = flavorIdOne < flavorIdTwo ? flavorIdOne : flavorIdTwo;
-        int secondFlavor = flavorIdOne < flavorIdTwo ? flavorIdTwo: flavorIdOne;
+    /**
+     * Remembers the latest id seen for each cost.
+     */
+    interface CostIndex {
+        /**
+         * Returns the id stored for cost, or 0 if there is none. Ids
+         * start at 1, so 0 is never a real id.
+         */
+        int idOf(int cost);
 
-        System.out.println(firstFlavor + " " + secondFlavor);
+        void put(int cost, int id);
     }
 
-    // Complete the whatFlavors function below.
-    static void whatFlavors(int[] costs, int money) {
-        Map<Integer, Integer> costToIds = new HashMap();
+    /**
+     * A flat int[] indexed by cost, for budgets small enough that the
+     * table costs no more memory than hashing would. Lookups are a
+     * single array load. Costs outside [0, money] can only pair with
+     * each other, so the rare ones that turn up go to a hashed overflow
+     * index.
+     */
+    static class DirectCostIndex implements CostIndex {
+        private final int[] ids;
+        private HashedCostIndex overflow = null;
 
-        for(int i = 0; i < costs.length; i++) {
-            int cost = costs[i];
-            int id = i + 1;
+        DirectCostIndex(int money) {
+            this.ids = new int[money + 1];
+        }
 
+        @Override
+        public int idOf(int cost) {
+            if(cost >= 0 && cost < ids.length)
+                return ids[cost];
 
-            int remainder = money - cost;
+            return overflow == null ? 0 : overflow.idOf(cost);
+        }
 
-            if(costToIds.containsKey(remainder)) {
-                printFlavors(id, costToIds.get(remainder));
+        @Override
+        public void put(int cost, int id) {
+            if(cost >= 0 && cost < ids.length) {
+                ids[cost] = id;
                 return;
+            }
+
+            if(overflow == null) overflow = new HashedCostIndex(16);
+            overflow.put(cost, id);
+        }
+    }
+
+    static class HashedCostIndex implements CostIndex {
+        private final IntIntOpenHashMap costToIds;
+
+        HashedCostIndex(int expectedCosts) {
+            this.costToIds = new IntIntOpenHashMap(expectedCosts);
+        }
+
+        @Override
+        public int idOf(int cost) {
+            return costToIds.get(cost, 0);
+        }
+
+        @Override
+        public void put(int cost, int id) {
+            costToIds.put(cost, id, 0);
+        }
+    }
+
+    /**
+     * Looks for the pair one cost at a time, in the same way as
+     * findFlavors. Costs after the pair is found are ignored.
+     */
+    static class FlavorFinder implements IntConsumer {
+        private final int money;
+        private final CostIndex costToIds;
+        private int id = 0;
+        private int[] flavorIds = null;
+
+        FlavorFinder(int money, int expectedCosts) {
+            this.money = money;
+            this.costToIds = costIndexFor(money, expectedCosts);
+        }
+
+        @Override
+        public void accept(int cost) {
+            id++;
+
+            if(flavorIds != null) return;
+
+            int remainder = money - cost;
+            int partnerId = costToIds.idOf(remainder);
+
+            if(partnerId != 0) {
+                flavorIds = new int[] { id, partnerId };
             } else {
                 costToIds.put(cost, id);
             }
         }
+
+        int[] getFlavorIds() {
+            return flavorIds;
+        }
+
+        boolean isFound() {
+            return flavorIds != null;
+        }
+    }
+
+    /**
+     * Receives pairs of flavor ids, later id first.
+     */
+    interface FlavorPairConsumer {
+        void accept(int id, int partnerId);
+    }
+
+    /**
+     * Counts the pairs of flavors that together cost exactly money, one
+     * cost at a time: each cost pairs with every earlier flavor whose
+     * cost is its remainder, so only per-cost counts are kept.
+     */
+    static class FlavorPairCounter implements IntConsumer {
+        private final int money;
+        private final IntIntOpenHashMap costCounts;
+        private long pairs = 0;
+
+        FlavorPairCounter(int money, int expectedCosts) {
+            this.money = money;
+            this.costCounts = new IntIntOpenHashMap(expectedCosts);
+        }
+
+        @Override
+        public void accept(int cost) {
+            pairs += costCounts.get(money - cost, 0);
+            costCounts.addTo(cost, 1);
+        }
+
+        long getPairs() {
+            return pairs;
+        }
+    }
+
+    /**
+     * Watches an unbounded stream of costs for two flavors among the
+     * last window arrivals, so with ids at most window - 1 apart, that
+     * together cost exactly money. Each arrival that completes such a
+     * pair is reported with its latest partner.
+     *
+     * Only the last window costs are kept, in a ring buffer, alongside
+     * a map from cost to the latest id with that cost. An evicted
+     * flavor leaves the map only if no later flavor of the same cost
+     * has replaced it, so arrivals and evictions are both O(1) and
+     * memory is bounded by the window.
+     */
+    static class WindowedFlavorFinder implements IntConsumer {
+        private final int money;
+        private final FlavorPairConsumer consumer;
+        private final int[] window;
+        private final IntIntOpenHashMap latestIds;
+        private int id = 0;
+
+        WindowedFlavorFinder(int money, int window, FlavorPairConsumer consumer) {
+            if(window < 2)
+                throw new IllegalArgumentException("A window must hold at least two flavors: " + window);
+
+            this.money = money;
+            this.consumer = consumer;
+            this.window = new int[window];
+            this.latestIds = new IntIntOpenHashMap(window);
+        }
+
+        @Override
+        public void accept(int cost) {
+            id++;
+
+            int slot = id % window.length;
+
+            // The flavor in this slot arrived window ids ago, so it can
+            // no longer pair with this one.
+            int evictedId = id - window.length;
+
+            if(evictedId > 0 && latestIds.get(window[slot], 0) == evictedId)
+                latestIds.remove(window[slot], 0);
+
+            int partnerId = latestIds.get(money - cost, 0);
+
+            if(partnerId != 0)
+                consumer.accept(id, partnerId);
+
+            latestIds.put(cost, id, 0);
+            window[slot] = cost;
+        }
+    }
+
+    /**
+     * Indexes a costs array once so that it can answer many budgets.
+     * Each flavor is packed into a long as (cost << 32 | id) and the
+     * longs are sorted, which orders them by cost and then by id.
+     *
+     * Every budget gets the same pair findFlavors would choose: the
+     * pair whose later flavor comes first, partnered with the latest
+     * earlier flavor of the right cost. Two strategies find it without
+     * building a map per budget:
+     *
+     * - Probing walks the flavors in id order and binary-searches for
+     *   each one's complement, stopping at the first hit. It wins when
+     *   the pair comes early, as it usually does.
+     * - Sweeping moves two pointers inward over the distinct costs,
+     *   checking every pair of costs in one sequential O(n) pass. It
+     *   wins when the pair comes late or not at all.
+     *
+     * Probing is tried for about as many steps as a sweep would take,
+     * then the sweep finishes the job, so a budget never costs more
+     * than twice the better of the two. Like findFlavors, this assumes
+     * that two costs add up without overflowing an int.
+     */
+    static class FlavorIndex {
+        private final int[] costs;
+        private final long[] flavors;
+        private final int probeLimit;
+
+        private FlavorIndex(int[] costs, long[] flavors) {
+            this.costs = costs;
+            this.flavors = flavors;
+            this.probeLimit = costs.length / (32 - Integer.numberOfLeadingZeros(costs.length | 1));
+        }
+
+        static FlavorIndex of(int[] costs) {
+            long[] flavors = new long[costs.length];
+
+            for(int i = 0; i < costs.length; i++) {
+                flavors[i] = pack(costs[i], i + 1);
+            }
+
+            Arrays.sort(flavors);
+
+            return new FlavorIndex(Arrays.copyOf(costs, costs.length), flavors);
+        }
+
+        private int costAt(int position) {
+            return (int) (flavors[position] >> 32);
+        }
+
+        /**
+         * Returns the ids of the pair of flavors that findFlavors would
+         * choose for money, or null if there is no such pair.
+         */
+        int[] findFlavors(int money) {
+            for(int i = 1; i < costs.length; i++) {
+                if(i > probeLimit)
+                    return sweep(money);
+
+                int id = i + 1;
+                int remainder = money - costs[i];
+                int partnerId = latestIdBefore(remainder, id);
+
+                if(partnerId != 0)
+                    return new int[] { id, partnerId };
+            }
+
+            return null;
+        }
+
+        /**
+         * Answers each budget in turn, with null for budgets that no
+         * pair of flavors adds up to.
+         */
+        int[][] findFlavors(int[] moneys) {
+            int[][] flavorIds = new int[moneys.length][];
+
+            for(int i = 0; i < moneys.length; i++) {
+                flavorIds[i] = findFlavors(moneys[i]);
+            }
+
+            return flavorIds;
+        }
+
+        private int idAt(int position) {
+            return (int) flavors[position];
+        }
+
+        /**
+         * The latest id below id among the flavors that cost cost, or 0
+         * if there is none.
+         */
+        private int latestIdBefore(int cost, int id) {
+            int position = Arrays.binarySearch(flavors, pack(cost, id));
+
+            // Either the flavor itself, or where it would be inserted.
+            if(position < 0) position = -position - 1;
+
+            if(position == 0 || costAt(position - 1) != cost)
+                return 0;
+
+            return idAt(position - 1);
+        }
+
+        private static long pack(int cost, int id) {
+            return ((long) cost << 32) | id;
+        }
+
+        int size() {
+            return flavors.length;
+        }
+
+        private int[] sweep(int money) {
+            int bestId = Integer.MAX_VALUE;
+            int bestPartnerId = 0;
+
+            int low = 0;
+            int high = flavors.length - 1;
+
+            while(low < high) {
+                int lowCost = costAt(low);
+                int highCost = costAt(high);
+
+                if(lowCost == highCost) {
+                    // Everything left costs the same, so the first two
+                    // ids are the earliest pair among them.
+                    if(2L * lowCost == money && idAt(low + 1) < bestId) {
+                        bestId = idAt(low + 1);
+                        bestPartnerId = idAt(low);
+                    }
+
+                    break;
+                }
+
+                int lowEnd = low;
+                while(costAt(lowEnd + 1) == lowCost) lowEnd++;
+
+                int highStart = high;
+                while(costAt(highStart - 1) == highCost) highStart--;
+
+                long sum = (long) lowCost + highCost;
+
+                if(sum == money) {
+                    // The pair completes at the later of the two first
+                    // ids, with the latest id of the other cost before it.
+                    int lowFirstId = idAt(low);
+                    int highFirstId = idAt(highStart);
+                    int id = Math.max(lowFirstId, highFirstId);
+
+                    if(id < bestId) {
+                        bestId = id;
+                        bestPartnerId = latestIdBefore(lowFirstId < highFirstId ? lowCost : highCost, id);
+                    }
+                }
+
+                if(sum <= money) low = lowEnd + 1;
+                if(sum >= money) high = highStart - 1;
+            }
+
+            return bestPartnerId == 0 ? null : new int[] { bestId, bestPartnerId };
+        }
+    }
+
+    /**
+     * Finds k flavors, for k of at least 3, that together cost exactly
+     * money. Of all such combinations it reports the lowest ids: the
+     * one whose ids, in ascending order, come first lexicographically.
+     *
+     * Three flavors are found by fixing the first flavor and running a
+     * two-pointer sweep over the sorted (cost << 32 | id) flavors for
+     * the other two. Runs of equal cost are searched by id, so that is
+     * O(n^2 log n) overall. Larger combinations meet in the middle:
+     * every combination of the last k - k/2 flavors is indexed by its
+     * total, and each combination of the first k/2 looks up a
+     * complement that starts after it ends.
+     *
+     * In parallel, the whole search runs on the given fork-join pool,
+     * with the choices of first flavor split across its workers, and
+     * the earliest first flavor with an answer wins, so the result is
+     * the same either way.
+     */
+    static class FlavorCombinations {
+        /**
+         * Every combination of a fixed number of flavors whose total is
+         * at most money, sorted by total and then by ids.
+         */
+        private static class Halves {
+            private final int size;
+            // (total << 32 | rank), where rank orders the combinations
+            // lexicographically by id.
+            private final long[] totals;
+            private final int[] indices;
+
+            private Halves(int size, long[] totals, int[] indices) {
+                this.size = size;
+                this.totals = totals;
+                this.indices = indices;
+            }
+
+            static Halves of(int[] costs, int money, int size, boolean parallel) {
+                HalvesBuilder builder = new HalvesBuilder(costs, money, size);
+                builder.collect(0, 0, 0L);
+
+                long[] totals = Arrays.copyOf(builder.totals, builder.count);
+
+                if(parallel) {
+                    Arrays.parallelSort(totals);
+                } else {
+                    Arrays.sort(totals);
+                }
+
+                return new Halves(size, totals, Arrays.copyOf(builder.indices, builder.count * size));
+            }
+
+            /**
+             * The indices of the lexicographically first combination
+             * with the given total that starts after index, or null.
+             */
+            int[] firstAfter(int index, int total) {
+                int from = lowerBound(totals, 0, totals.length, (long) total << 32);
+                int to = lowerBound(totals, from, totals.length, ((long) total + 1) << 32);
+
+                // Within one total, combinations are in lexicographic
+                // order, so their first indices ascend.
+                while(from < to) {
+                    int middle = (from + to) >>> 1;
+
+                    if(indices[rankAt(middle) * size] > index) {
+                        to = middle;
+                    } else {
+                        from = middle + 1;
+                    }
+                }
+
+                if(from == totals.length || (int) (totals[from] >> 32) != total)
+                    return null;
+
+                int offset = rankAt(from) * size;
+
+                return Arrays.copyOfRange(indices, offset, offset + size);
+            }
+
+            private int rankAt(int position) {
+                return (int) totals[position];
+            }
+        }
+
+        private static class HalvesBuilder {
+            private final int[] costs;
+            private final int money;
+            private final int size;
+            private final int[] combination;
+            private long[] totals = new long[16];
+            private int[] indices;
+            private int count = 0;
+
+            HalvesBuilder(int[] costs, int money, int size) {
+                this.costs = costs;
+                this.money = money;
+                this.size = size;
+                this.combination = new int[size];
+                this.indices = new int[16 * size];
+            }
+
+            void collect(int depth, int from, long total) {
+                if(depth == size) {
+                    add((int) total);
+                    return;
+                }
+
+                for(int i = from; i <= costs.length - (size - depth); i++) {
+                    if(total + costs[i] > money) continue;
+
+                    combination[depth] = i;
+                    collect(depth + 1, i + 1, total + costs[i]);
+                }
+            }
+
+            private void add(int total) {
+                if(count == totals.length) {
+                    if(count == MAX_HALVES)
+                        throw new IllegalArgumentException("Too many combinations of " + size + " flavors");
+
+                    int capacity = (int) Math.min(MAX_HALVES, 2L * count);
+                    totals = Arrays.copyOf(totals, capacity);
+                    indices = Arrays.copyOf(indices, capacity * size);
+                }
+
+                totals[count] = ((long) total << 32) | count;
+                System.arraycopy(combination, 0, indices, count * size, size);
+                count++;
+            }
+        }
+
+        private static final int MAX_HALVES = (Integer.MAX_VALUE - 8) / 8;
+
+        private final int[] costs;
+        private final long[] flavors;
+        private final boolean parallel;
+
+        private FlavorCombinations(int[] costs, boolean parallel) {
+            this.costs = costs;
+            this.flavors = new long[costs.length];
+            this.parallel = parallel;
+
+            for(int i = 0; i < costs.length; i++) {
+                flavors[i] = ((long) costs[i] << 32) | (i + 1);
+            }
+
+            Arrays.sort(flavors);
+        }
+
+        /**
+         * Returns the lowest ids, ascending, of k flavors that together
+         * cost exactly money, or null if there are none.
+         */
+        static int[] find(int[] costs, int money, int k) {
+            return find(costs, money, k, false);
+        }
+
+        /**
+         * Returns the same ids as find, searching on every worker of the
+         * pool. Parallel streams and sorts started from a pool's worker
+         * stay on that pool, so the search is submitted to it whole.
+         */
+        static int[] find(int[] costs, int money, int k, ForkJoinPool pool) {
+            if(pool.getParallelism() == 1)
+                return find(costs, money, k);
+
+            return pool.submit(() -> find(costs, money, k, true)).join();
+        }
+
+        private static int[] find(int[] costs, int money, int k, boolean parallel) {
+            if(k < 3)
+                throw new IllegalArgumentException("Use findFlavors for fewer than 3 flavors: " + k);
+
+            if(k > costs.length) return null;
+
+            FlavorCombinations combinations = new FlavorCombinations(costs, parallel);
+
+            return k == 3
+                    ? combinations.findThree(money)
+                    : combinations.findByMeetingInTheMiddle(money, k);
+        }
+
+        private int costAt(int position) {
+            return (int) (flavors[position] >> 32);
+        }
+
+        /**
+         * The position of the first flavor in flavors[from..to], all of
+         * one cost, whose id is above id, or to + 1 if there is none.
+         */
+        private int firstAfter(int from, int to, int id) {
+            int position = Arrays.binarySearch(flavors, from, to + 1, ((long) costAt(from) << 32) | id);
+
+            return position < 0 ? -position - 1 : position + 1;
+        }
+
+        private int[] findByMeetingInTheMiddle(int money, int k) {
+            for(int cost : costs) {
+                if(cost < 0)
+                    throw new IllegalArgumentException("Costs must not be negative: " + cost);
+            }
+
+            int leftSize = k / 2;
+            Halves right = Halves.of(costs, money, k - leftSize, parallel);
+
+            return firstOf(costs.length, first -> {
+                int[] left = new int[leftSize];
+                left[0] = first;
+
+                return findWithLeft(left, 1, costs[first], money, right);
+            });
+        }
+
+        /**
+         * Tries every choice of first flavor, in parallel if asked, and
+         * returns the answer for the earliest one that has an answer.
+         */
+        private int[] firstOf(int firsts, IntFunction<int[]> search) {
+            IntStream stream = IntStream.range(0, firsts);
+
+            if(parallel) stream = stream.parallel();
+
+            return stream.mapToObj(search)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        private int[] findThree(int money) {
+            return firstOf(costs.length - 2, first -> {
+                int id = first + 1;
+                int[] pair = findPairAfter(id, (long) money - costs[first]);
+
+                return pair == null ? null : new int[] { id, pair[0], pair[1] };
+            });
+        }
+
+        /**
+         * The lexicographically first pair of ids, both above id, whose
+         * costs add up to target, or null if there is none.
+         */
+        private int[] findPairAfter(int id, long target) {
+            int bestId = Integer.MAX_VALUE;
+            int bestPartnerId = 0;
+
+            int low = 0;
+            int high = flavors.length - 1;
+
+            while(low <= high) {
+                int lowCost = costAt(low);
+                int highCost = costAt(high);
+
+                if(lowCost == highCost) {
+                    // Everything left costs the same, so the pair is
+                    // the first two ids above id, if there are two.
+                    int first = firstAfter(low, high, id);
+
+                    if(2L * lowCost == target && first < high) {
+                        int firstId = (int) flavors[first];
+
+                        if(firstId < bestId) {
+                            bestId = firstId;
+                            bestPartnerId = (int) flavors[first + 1];
+                        }
+                    }
+
+                    break;
+                }
+
+                int lowEnd = low;
+                while(costAt(lowEnd + 1) == lowCost) lowEnd++;
+
+                int highStart = high;
+                while(costAt(highStart - 1) == highCost) highStart--;
+
+                long sum = (long) lowCost + highCost;
+
+                if(sum == target) {
+                    int lowFirst = firstAfter(low, lowEnd, id);
+                    int highFirst = firstAfter(highStart, high, id);
+
+                    if(lowFirst <= lowEnd && highFirst <= high) {
+                        int lowId = (int) flavors[lowFirst];
+                        int highId = (int) flavors[highFirst];
+                        int firstId = Math.min(lowId, highId);
+
+                        if(firstId < bestId) {
+                            bestId = firstId;
+                            bestPartnerId = Math.max(lowId, highId);
+                        }
+                    }
+                }
+
+                if(sum <= target) low = lowEnd + 1;
+                if(sum >= target) high = highStart - 1;
+            }
+
+            return bestPartnerId == 0 ? null : new int[] { bestId, bestPartnerId };
+        }
+
+        /**
+         * Extends the left half depth by depth in lexicographic order,
+         * and returns the first full combination whose left half has a
+         * right half to match.
+         */
+        private int[] findWithLeft(int[] left, int depth, long total, int money, Halves right) {
+            if(total > money) return null;
+
+            if(depth == left.length) {
+                int[] rest = right.firstAfter(left[depth - 1], (int) (money - total));
+
+                if(rest == null) return null;
+
+                int[] flavorIds = new int[left.length + rest.length];
+
+                for(int i = 0; i < left.length; i++) flavorIds[i] = left[i] + 1;
+                for(int i = 0; i < rest.length; i++) flavorIds[left.length + i] = rest[i] + 1;
+
+                return flavorIds;
+            }
+
+            for(int i = left[depth - 1] + 1; i < costs.length; i++) {
+                left[depth] = i;
+
+                int[] flavorIds = findWithLeft(left, depth + 1, total + costs[i], money, right);
+
+                if(flavorIds != null) return flavorIds;
+            }
+
+            return null;
+        }
+
+        private static int lowerBound(long[] values, int from, int to, long value) {
+            while(from < to) {
+                int middle = (from + to) >>> 1;
+
+                if(values[middle] < value) {
+                    from = middle + 1;
+                } else {
+                    to = middle;
+                }
+            }
+
+            return from;
+        }
+    }
+
+    /**
+     * Finds the same pair as findFlavors, using every core of a
+     * fork-join pool, for catalogs too big for one core to scan.
+     *
+     * A cost c and its remainder money - c always share the canonical
+     * key min(c, money - c), so the flavors are scattered into buckets
+     * by a hash of that key. Any pair then lies within one bucket. The
+     * scatter is stable, so each bucket holds its flavors in id order,
+     * and every bucket is searched exactly as findFlavors would search
+     * it. The answer is the bucket result with the lowest id, and a
+     * shared best id lets the other buckets stop as soon as they pass
+     * it.
+     *
+     * Since the answer is often near the front, a short prefix is first
+     * searched on the calling thread. An answer found there needs no
+     * scatter at all.
+     */
+    static class ParallelFlavorFinder {
+        static final int PREFIX = 1 << 16;
+        static final int MIN_BUCKET_SIZE = 1 << 14;
+
+        /**
+         * Runs body on every index in [from, to), splitting the range
+         * across the pool.
+         */
+        private static class ForEach extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+            private final IntConsumer body;
+
+            ForEach(int from, int to, IntConsumer body) {
+                this.from = from;
+                this.to = to;
+                this.body = body;
+            }
+
+            @Override
+            protected void compute() {
+                if(to - from == 1) {
+                    body.accept(from);
+                    return;
+                }
+
+                int middle = (from + to) >>> 1;
+
+                invokeAll(new ForEach(from, middle, body), new ForEach(middle, to, body));
+            }
+        }
+
+        private final int[] costs;
+        private final int money;
+        private final ForkJoinPool pool;
+        private final int bucketBits;
+        private final int chunks;
+
+        // Flavor indices grouped by bucket, and where each bucket starts.
+        private int[] scattered;
+        private int[] bucketStarts;
+
+        private final AtomicInteger bestIndex = new AtomicInteger(Integer.MAX_VALUE);
+        private final AtomicInteger bestPartnerIndex = new AtomicInteger();
+
+        ParallelFlavorFinder(int[] costs, int money, ForkJoinPool pool) {
+            this.costs = costs;
+            this.money = money;
+            this.pool = pool;
+
+            int buckets = Math.max(1, Math.min(pool.getParallelism() * 16, costs.length / MIN_BUCKET_SIZE));
+            this.bucketBits = 32 - Integer.numberOfLeadingZeros(buckets - 1);
+            this.chunks = Math.max(1, Math.min(pool.getParallelism() * 4, costs.length / MIN_BUCKET_SIZE));
+        }
+
+        private int bucketOf(int cost) {
+            int remainder = money - cost;
+            int key = Math.min(cost, remainder);
+
+            return bucketBits == 0 ? 0 : (key * 0x9E3779B9) >>> (32 - bucketBits);
+        }
+
+        private int chunkStart(int chunk) {
+            return (int) ((long) costs.length * chunk / chunks);
+        }
+
+        int[] find() {
+            int[] flavorIds = findInPrefix();
+
+            if(flavorIds != null || costs.length <= PREFIX)
+                return flavorIds;
+
+            scatter();
+
+            pool.invoke(new ForEach(0, 1 << bucketBits, this::searchBucket));
+
+            if(bestIndex.get() == Integer.MAX_VALUE)
+                return null;
+
+            return new int[] { bestIndex.get() + 1, bestPartnerIndex.get() + 1 };
+        }
+
+        private int[] findInPrefix() {
+            FlavorFinder finder = new FlavorFinder(money, Math.min(costs.length, PREFIX));
+
+            for(int i = 0; i < costs.length && i < PREFIX && !finder.isFound(); i++) {
+                finder.accept(costs[i]);
+            }
+
+            return finder.getFlavorIds();
+        }
+
+        /**
+         * Stable counting-sort scatter: each chunk counts its flavors
+         * per bucket, the counts become per-chunk offsets within each
+         * bucket, and each chunk then places its flavors in id order.
+         */
+        private void scatter() {
+            int buckets = 1 << bucketBits;
+            int[][] counts = new int[chunks][buckets];
+
+            pool.invoke(new ForEach(0, chunks, chunk -> {
+                int[] chunkCounts = counts[chunk];
+
+                for(int i = chunkStart(chunk); i < chunkStart(chunk + 1); i++) {
+                    chunkCounts[bucketOf(costs[i])]++;
+                }
+            }));
+
+            bucketStarts = new int[buckets + 1];
+            int offset = 0;
+
+            for(int bucket = 0; bucket < buckets; bucket++) {
+                bucketStarts[bucket] = offset;
+
+                for(int chunk = 0; chunk < chunks; chunk++) {
+                    int count = counts[chunk][bucket];
+                    counts[chunk][bucket] = offset;
+                    offset += count;
+                }
+            }
+
+            bucketStarts[buckets] = offset;
+            scattered = new int[costs.length];
+
+            pool.invoke(new ForEach(0, chunks, chunk -> {
+                int[] positions = counts[chunk];
+
+                for(int i = chunkStart(chunk); i < chunkStart(chunk + 1); i++) {
+                    scattered[positions[bucketOf(costs[i])]++] = i;
+                }
+            }));
+        }
+
+        /**
+         * Searches one bucket in id order, the way findFlavors searches
+         * the whole array, and offers its pair as the best one.
+         */
+        private void searchBucket(int bucket) {
+            int from = bucketStarts[bucket];
+            int to = bucketStarts[bucket + 1];
+            CostIndex costToIndices = costIndexFor(money, to - from);
+
+            for(int position = from; position < to; position++) {
+                int index = scattered[position];
+
+                if(index >= bestIndex.get()) return;
+
+                int cost = costs[index];
+
+                // Stored as index + 1, so that 0 still means missing.
+                int partner = costToIndices.idOf(money - cost);
+
+                if(partner != 0) {
+                    offer(index, partner - 1);
+                    return;
+                }
+
+                costToIndices.put(cost, index + 1);
+            }
+        }
+
+        private synchronized void offer(int index, int partnerIndex) {
+            if(index < bestIndex.get()) {
+                bestPartnerIndex.set(partnerIndex);
+                bestIndex.set(index);
+            }
+        }
     }
 
-    private static final Scanner scanner = new Scanner(System.in);
+    static class Query {
+        final int money;
+        final int[] costs;
 
-    public static void main(String[] args) {
-        int t = scanner.nextInt();
-        scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+        Query(int money, int[] costs) {
+            this.money = money;
+            this.costs = costs;
+        }
 
-        for (int tItr = 0; tItr < t; tItr++) {
-            int money = scanner.nextInt();
-            scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+        static Query parse(InputReader reader) throws IOException {
+            int money = reader.nextInt();
 
-            int n = scanner.nextInt();
-            scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+            int n = reader.nextInt();
 
-            int[] cost = new int[n];
+            int[] costs = reader.nextIntArray(n);
 
-            String[] costItems = scanner.nextLine().split(" ");
-            scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+            return new Query(money, costs);
+        }
+    }
+
+    /**
+     * Returns the ids of the first pair of flavors that together cost
+     * exactly money, or null if there is no such pair.
+     */
+    static int[] findFlavors(int[] costs, int money) {
+        FlavorFinder finder = new FlavorFinder(money, costs.length);
+
+        for(int i = 0; i < costs.length && !finder.isFound(); i++) {
+            finder.accept(costs[i]);
+        }
+
+        return finder.getFlavorIds();
+    }
+
+    static long countFlavorPairs(int[] costs, int money) {
+        FlavorPairCounter counter = new FlavorPairCounter(money, costs.length);
+
+        for(int cost : costs) {
+            counter.accept(cost);
+        }
 
-            for (int i = 0; i < n; i++) {
-                int costItem = Integer.parseInt(costItems[i]);
-                cost[i] = costItem;
+        return counter.getPairs();
+    }
+
+    /**
+     * Streams the next n costs from the reader and counts their pairs.
+     */
+    static long countFlavorPairs(InputReader reader, int n, int money) throws IOException {
+        FlavorPairCounter counter = new FlavorPairCounter(money, n);
+
+        reader.forEachInt(n, counter);
+
+        return counter.getPairs();
+    }
+
+    /**
+     * Hands every pair of flavors that together cost exactly money to
+     * the consumer, ordered by the later id and then by the earlier id
+     * descending. Flavors of each cost are chained from latest to
+     * earliest through one int[], so memory stays O(n) however many
+     * pairs there are.
+     */
+    static void forEachFlavorPair(int[] costs, int money, FlavorPairConsumer consumer) {
+        IntIntOpenHashMap latestIds = new IntIntOpenHashMap(costs.length);
+        int[] previousIds = new int[costs.length + 1];
+
+        for(int i = 0; i < costs.length; i++) {
+            int id = i + 1;
+            int cost = costs[i];
+
+            for(int partnerId = latestIds.get(money - cost, 0);
+                    partnerId != 0;
+                    partnerId = previousIds[partnerId]) {
+                consumer.accept(id, partnerId);
             }
 
-            whatFlavors(cost, money);
+            previousIds[id] = latestIds.put(cost, id, 0);
+        }
+    }
+
+    /**
+     * Streams the next n costs from the reader through a
+     * WindowedFlavorFinder.
+     */
+    static void forEachWindowedFlavorPair(InputReader reader, int n, int money, int window,
+                                          FlavorPairConsumer consumer) throws IOException {
+        reader.forEachInt(n, new WindowedFlavorFinder(money, window, consumer));
+    }
+
+    /**
+     * Returns the same pair as findFlavors, searching the costs on
+     * every core of the pool.
+     */
+    static int[] findFlavors(int[] costs, int money, ForkJoinPool pool) {
+        // With one worker, bucketing is pure overhead.
+        if(pool.getParallelism() == 1)
+            return findFlavors(costs, money);
+
+        return new ParallelFlavorFinder(costs, money, pool).find();
+    }
+
+    /**
+     * Finds the pair for one query, in parallel if hackerrank.parallelism
+     * asks for it and there are more costs than the prefix that
+     * ParallelFlavorFinder searches on the calling thread anyway.
+     */
+    static int[] searchFlavors(int[] costs, int money) {
+        if(costs.length > ParallelFlavorFinder.PREFIX) {
+            ForkJoinPool pool = QueryExecutor.poolFromSystemProperties();
+
+            if(pool != null)
+                return findFlavors(costs, money, pool);
+        }
+
+        return findFlavors(costs, money);
+    }
+
+    static CostIndex costIndexFor(int money, int expectedCosts) {
+        if(money >= 0 && money < Integer.MAX_VALUE
+                && money <= (long) DIRECT_ADDRESS_COSTS_FACTOR * expectedCosts)
+            return new DirectCostIndex(money);
+
+        return new HashedCostIndex(expectedCosts);
+    }
+
+    /**
+     * Streams the next n costs from the reader without collecting them
+     * into an array.
+     */
+    static int[] findFlavors(InputReader reader, int n, int money) throws IOException {
+        FlavorFinder finder = new FlavorFinder(money, n);
+
+        reader.forEachInt(n, finder);
+
+        return finder.getFlavorIds();
+    }
+
+    static void printFlavors(OutputWriter writer, int flavorIdOne, int flavorIdTwo) throws IOException {
+        int firstFlavor = flavorIdOne < flavorIdTwo ? flavorIdOne : flavorIdTwo;
+        int secondFlavor = flavorIdOne < flavorIdTwo ? flavorIdTwo: flavorIdOne;
+
+        writer.write(firstFlavor).write(' ').write(secondFlavor).newLine();
+    }
+
+    /**
+     * Prints any number of flavor ids on one line, in ascending order.
+     */
+    static void printFlavors(OutputWriter writer, int[] flavorIds) throws IOException {
+        int[] sortedIds = flavorIds.clone();
+        Arrays.sort(sortedIds);
+
+        for(int i = 0; i < sortedIds.length; i++) {
+            if(i > 0) writer.write(' ');
+            writer.write(sortedIds[i]);
         }
 
-        scanner.close();
+        writer.newLine();
+    }
+
+    // Complete the whatFlavors function below.
+    static void whatFlavors(int[] costs, int money, OutputWriter writer) throws IOException {
+        int[] flavorIds = findFlavors(costs, money);
+
+        if(flavorIds != null)
+            printFlavors(writer, flavorIds[0], flavorIds[1]);
+    }
+
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        int t = reader.nextInt();
+
+        QueryExecutor.fromSystemProperties("CTCIIceCreamParlor").execute(t, reader, writer,
+                r -> {
+                    int money = r.nextInt();
+                    int n = r.nextInt();
+
+                    return findFlavors(r, n, money);
+                },
+                Query::parse,
+                query -> searchFlavors(query.costs, query.money),
+                (w, flavorIds) -> {
+                    if(flavorIds != null)
+                        printFlavors(w, flavorIds[0], flavorIds[1]);
+                });
+    }
+
+    public static void main(String[] args) throws IOException {
+        InputReader reader = InputReader.from(System.in);
+        OutputWriter writer = OutputWriter.toStandardOutput();
+
+        run(reader, writer);
+
+        writer.close();
+
+        reader.close();
     }
 }
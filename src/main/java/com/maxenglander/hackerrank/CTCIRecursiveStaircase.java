@@ -1,12 +1,9 @@
 package com.maxenglander.hackerrank;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.joining;
@@ -17,6 +14,8 @@ public class CTCIRecursiveStaircase {
             int complexity;
         }
 
+        private static final Metrics.Counter RECURSIONS = Metrics.counter("CTCIRecursiveStaircase.recursions");
+
         private final int staircaseHeight;
         private final int[] stepsAtATime;
 
@@ -35,12 +34,16 @@ public class CTCIRecursiveStaircase {
 
             int count = count(staircaseHeight, stepsAtATime, memo, stats);
 
-            System.err.println(
-                    "Steps at a time = " + IntStream.of(stepsAtATime)
-                            .mapToObj(String::valueOf)
-                            .collect(joining(","))
-                    + "; staircase height " + staircaseHeight
-                    + "; complexity = " + stats.complexity);
+            if(Metrics.ENABLED) RECURSIONS.add(stats.complexity);
+
+            if(Diagnostics.DEBUG) {
+                Diagnostics.debug(
+                        "Steps at a time = " + IntStream.of(stepsAtATime)
+                                .mapToObj(String::valueOf)
+                                .collect(joining(","))
+                        + "; staircase height " + staircaseHeight
+                        + "; complexity = " + stats.complexity);
+            }
 
             return count;
         }
@@ -77,26 +80,24 @@ public class CTCIRecursiveStaircase {
         return counter.count();
     }
 
-    private static final Scanner scanner = new Scanner(System.in);
-
-    public static void main(String[] args) throws IOException {
-        BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(System.getenv("OUTPUT_PATH")));
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        int s = reader.nextInt();
 
-        int s = scanner.nextInt();
-        scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+        QueryExecutor.fromSystemProperties("CTCIRecursiveStaircase").execute(s, reader, writer,
+                InputReader::nextInt,
+                CTCIRecursiveStaircase::stepPerms,
+                (w, res) -> w.write(res).newLine());
+    }
 
-        for (int sItr = 0; sItr < s; sItr++) {
-            int n = scanner.nextInt();
-            scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+    public static void main(String[] args) throws IOException {
+        OutputWriter writer = OutputWriter.fromEnvironment();
 
-            int res = stepPerms(n);
+        InputReader reader = InputReader.from(System.in);
 
-            bufferedWriter.write(String.valueOf(res));
-            bufferedWriter.newLine();
-        }
+        run(reader, writer);
 
-        bufferedWriter.close();
+        writer.close();
 
-        scanner.close();
+        reader.close();
     }
 }
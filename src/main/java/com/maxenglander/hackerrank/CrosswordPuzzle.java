@@ -1,7 +1,5 @@
 package com.maxenglander.hackerrank;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.*;
 
@@ -11,6 +9,8 @@ import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toSet;
 
 public class CrosswordPuzzle {
+    private static final Metrics.Phases PHASES = Metrics.phases("CrosswordPuzzle");
+
     static class Answer {
         private final Block block;
         private final String word;
@@ -487,6 +487,8 @@ public class CrosswordPuzzle {
         }
 
         static class Solver {
+            private static final Metrics.Counter PERMUTATIONS = Metrics.counter("CrosswordPuzzle.permutations");
+
             /**
              * Finds the first empty block on the board into which
              * the word fits without conflicts with answers in
@@ -537,13 +539,16 @@ public class CrosswordPuzzle {
 
                 while(wordsPermutator.hasNext()) {
                     List<String> permutation = wordsPermutator.next();
-                    System.err.println("Attempting to solve with permutation: "
-                            + permutation.stream().collect(joining(",")));
+                    if(Metrics.ENABLED) PERMUTATIONS.increment();
+                    if(Diagnostics.TRACE) {
+                        Diagnostics.trace("Attempting to solve with permutation: "
+                                + permutation.stream().collect(joining(",")));
+                    }
                     Optional<Puzzle.Solution> maybeSolution = solveOnce(board, permutation);
                     if(maybeSolution.isPresent()) return maybeSolution;
                 }
 
-                System.err.println("Failed to find any solution");
+                if(Diagnostics.DEBUG) Diagnostics.debug("Failed to find any solution");
 
                 return Optional.empty();
             }
@@ -640,17 +645,22 @@ public class CrosswordPuzzle {
     }
 
     static String[] crosswordPuzzle(String[] crossword, String wordString) {
-        System.err.println("Building crossword puzzle board");
+        if(Diagnostics.DEBUG) Diagnostics.debug("Building crossword puzzle board");
 
+        long started = Metrics.nanoTime();
         Optional<Board> maybeBoard = buildBoard(crossword);
+        PHASES.build.recordSince(started);
+
         if(!maybeBoard.isPresent())
             return new String[0];
 
         Board board = maybeBoard.get();
         String[] words = wordString.split(";");
 
-        System.err.println("Solving puzzle");
+        if(Diagnostics.DEBUG) Diagnostics.debug("Solving puzzle");
+        started = Metrics.nanoTime();
         Optional<Puzzle.Solution> maybeSolution = Puzzle.Solver.solve(board, words);
+        PHASES.solve.recordSince(started);
         
         if(!maybeSolution.isPresent()) {
             return new String[0];
@@ -658,7 +668,7 @@ public class CrosswordPuzzle {
         
         Puzzle.Solution solution = maybeSolution.get();
 
-        System.err.println("Turning solution into string array");
+        if(Diagnostics.DEBUG) Diagnostics.debug("Turning solution into string array");
 
         return solutionToStringArray(crossword, solution);
     }
@@ -688,36 +698,48 @@ public class CrosswordPuzzle {
         return stringArray;
     }
 
-    private static final Scanner scanner = new Scanner(System.in);
-
-    public static void main(String[] args) throws IOException {
-        BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(System.getenv("OUTPUT_PATH")));
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        long started = Metrics.nanoTime();
 
         String[] crossword = new String[10];
 
         for (int i = 0; i < 10; i++) {
-            String crosswordItem = scanner.nextLine();
+            String crosswordItem = reader.nextToken();
             crossword[i] = crosswordItem;
         }
 
-        String words = scanner.nextLine();
+        String words = reader.nextToken();
+
+        PHASES.parse.recordSince(started);
 
         String[] result = crosswordPuzzle(crossword, words);
 
-        System.err.println("Printing solution");
+        if(Diagnostics.DEBUG) Diagnostics.debug("Printing solution");
+
+        started = Metrics.nanoTime();
 
         for (int i = 0; i < result.length; i++) {
-            bufferedWriter.write(result[i]);
+            writer.write(result[i]);
 
             if (i != result.length - 1) {
-                bufferedWriter.write("\n");
+                writer.newLine();
             }
         }
 
-        bufferedWriter.newLine();
+        writer.newLine();
+
+        PHASES.write.recordSince(started);
+    }
+
+    public static void main(String[] args) throws IOException {
+        OutputWriter writer = OutputWriter.fromEnvironment();
+
+        InputReader reader = InputReader.from(System.in);
+
+        run(reader, writer);
 
-        bufferedWriter.close();
+        writer.close();
 
-        scanner.close();
+        reader.close();
     }
 }
@@ -0,0 +1,81 @@
+package com.maxenglander.hackerrank;
+
+import java.io.PrintStream;
+
+/**
+ * Leveled tracing to stderr, enabled with -Dhackerrank.diagnostics=LEVEL.
+ *
+ * The level flags are static finals, which the JIT treats as constants,
+ * so a guarded call site such as
+ *
+ *     if(Diagnostics.TRACE) Diagnostics.trace("..." + value);
+ *
+ * is compiled away entirely, message building included, when the level
+ * is off.
+ */
+public class Diagnostics {
+    enum Level {
+        OFF,
+        ERROR,
+        WARN,
+        INFO,
+        DEBUG,
+        TRACE
+    }
+
+    static final String LEVEL_PROPERTY = "hackerrank.diagnostics";
+
+    static final Level LEVEL = parseLevel(System.getProperty(LEVEL_PROPERTY));
+
+    static final boolean ERROR = isEnabled(Level.ERROR);
+    static final boolean WARN = isEnabled(Level.WARN);
+    static final boolean INFO = isEnabled(Level.INFO);
+    static final boolean DEBUG = isEnabled(Level.DEBUG);
+    static final boolean TRACE = isEnabled(Level.TRACE);
+
+    private Diagnostics() {}
+
+    static void debug(String message) {
+        log(Level.DEBUG, message);
+    }
+
+    static void error(String message) {
+        log(Level.ERROR, message);
+    }
+
+    static void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    static boolean isEnabled(Level level) {
+        return level != Level.OFF && LEVEL.compareTo(level) >= 0;
+    }
+
+    static void log(Level level, String message) {
+        stream().println("[" + level + "] " + message);
+    }
+
+    private static Level parseLevel(String value) {
+        if(value == null || value.isEmpty())
+            return Level.OFF;
+
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch(IllegalArgumentException e) {
+            System.err.println("Unknown " + LEVEL_PROPERTY + " level '" + value + "'; diagnostics are off");
+            return Level.OFF;
+        }
+    }
+
+    static PrintStream stream() {
+        return System.err;
+    }
+
+    static void trace(String message) {
+        log(Level.TRACE, message);
+    }
+
+    static void warn(String message) {
+        log(Level.WARN, message);
+    }
+}
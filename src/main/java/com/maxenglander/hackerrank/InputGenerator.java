@@ -0,0 +1,570 @@
+package com.maxenglander.hackerrank;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Writes synthetic, correctly formatted input files for every solver,
+ * at sizes far beyond the HackerRank samples.
+ *
+ *     InputGenerator <problem> <size> [shape] [seed] [queries]
+ *
+ * Output goes to OUTPUT_PATH, or to stdout when it is unset. The same
+ * problem, size, shape, seed and query count always produce the same
+ * file. Shapes that mean nothing for a problem (a STAR array, say) are
+ * treated as RANDOM.
+ */
+public class InputGenerator {
+    enum Shape {
+        /** Paths, sorted arrays, flat strings. */
+        CHAIN,
+        /** Hubs with many leaves, near-sorted arrays. */
+        STAR,
+        RANDOM,
+        /** Whatever drives the current solver to its worst case. */
+        ADVERSARIAL
+    }
+
+    interface Generator {
+        void generate(Spec spec, Random random, OutputWriter writer) throws IOException;
+    }
+
+    static class Spec {
+        final int size;
+        final Shape shape;
+        final int queries;
+
+        Spec(int size, Shape shape, int queries) {
+            this.size = size;
+            this.shape = shape;
+            this.queries = queries;
+        }
+    }
+
+    /**
+     * The inverse of IntIntOpenHashMap's hash multiplier, 0x9E3779B9,
+     * modulo 2^32.
+     */
+    private static final int FIBONACCI_INVERSE = 0x144CBC89;
+
+    static final Map<String, Generator> GENERATORS = new LinkedHashMap<>();
+    static {
+        GENERATORS.put("AlternatingCharacters", InputGenerator::alternatingCharacters);
+        GENERATORS.put("BalancedBrackets", InputGenerator::balancedBrackets);
+        GENERATORS.put("BalancedForest", InputGenerator::balancedForest);
+        GENERATORS.put("CTCIBubbleSort", InputGenerator::bubbleSort);
+        GENERATORS.put("CTCIFibonacciNumbers", InputGenerator::fibonacciNumbers);
+        GENERATORS.put("CTCIIceCreamParlor", InputGenerator::iceCreamParlor);
+        GENERATORS.put("CTCIRecursiveStaircase", InputGenerator::recursiveStaircase);
+        GENERATORS.put("CrosswordPuzzle", InputGenerator::crosswordPuzzle);
+        GENERATORS.put("LuckBalance", InputGenerator::luckBalance);
+        GENERATORS.put("MagicSquareForming", InputGenerator::magicSquareForming);
+        GENERATORS.put("MarkAndToys", InputGenerator::markAndToys);
+        GENERATORS.put("MaxArraySum", InputGenerator::maxArraySum);
+        GENERATORS.put("RoadsAndLibraries", InputGenerator::roadsAndLibraries);
+    }
+
+    private InputGenerator() {}
+
+    private static void alternatingCharacters(Spec spec, Random random, OutputWriter writer) throws IOException {
+        writer.write(spec.queries).newLine();
+
+        for(int q = 0; q < spec.queries; q++) {
+            for(int i = 0; i < spec.size; i++) {
+                switch(spec.shape) {
+                    case CHAIN:
+                    case ADVERSARIAL:
+                        // A single repeated letter: every character but one is deleted
+                        writer.write('A');
+                        break;
+                    default:
+                        writer.write(random.nextBoolean() ? 'A' : 'B');
+                }
+            }
+
+            writer.newLine();
+        }
+    }
+
+    private static void balancedBrackets(Spec spec, Random random, OutputWriter writer) throws IOException {
+        writer.write(spec.queries).newLine();
+
+        for(int q = 0; q < spec.queries; q++) {
+            writer.write(new String(brackets(spec.shape, spec.size, random))).newLine();
+        }
+    }
+
+    private static void balancedForest(Spec spec, Random random, OutputWriter writer) throws IOException {
+        writer.write(spec.queries).newLine();
+
+        for(int q = 0; q < spec.queries; q++) {
+            int n = spec.size;
+            int[] c = spec.shape == Shape.ADVERSARIAL
+                    ? filled(n, 1)
+                    : randomInts(random, n, 1, 1000000000 / Math.max(n, 1));
+
+            writer.write(n).newLine();
+            writeRow(writer, c);
+            writeEdges(writer, treeEdges(spec.shape, n, random));
+        }
+    }
+
+    /**
+     * Builds a string of length n (rounded down to even) from the three
+     * kinds of brackets. CHAIN gives flat "()[]{}" runs, ADVERSARIAL
+     * nests everything, so the stack grows to n/2, and RANDOM is a
+     * random walk that is balanced about half the time.
+     */
+    static char[] brackets(Shape shape, int n, Random random) {
+        char[] open = { '(', '[', '{' };
+        char[] close = { ')', ']', '}' };
+        int half = n / 2;
+        char[] chars = new char[half * 2];
+
+        switch(shape) {
+            case CHAIN:
+            case STAR:
+                for(int i = 0; i < half; i++) {
+                    chars[2 * i] = open[i % 3];
+                    chars[2 * i + 1] = close[i % 3];
+                }
+                break;
+            case ADVERSARIAL:
+                for(int i = 0; i < half; i++) {
+                    chars[i] = open[i % 3];
+                    chars[chars.length - 1 - i] = close[i % 3];
+                }
+                break;
+            default:
+                int[] stack = new int[half];
+                int depth = 0;
+
+                for(int i = 0; i < chars.length; i++) {
+                    int remaining = chars.length - i;
+
+                    if(depth > 0 && (depth == remaining || random.nextBoolean())) {
+                        chars[i] = close[stack[--depth]];
+                    } else {
+                        int kind = random.nextInt(3);
+                        stack[depth++] = kind;
+                        chars[i] = open[kind];
+                    }
+                }
+
+                if(random.nextBoolean() && chars.length > 0)
+                    chars[chars.length - 1] = close[random.nextInt(3)];
+        }
+
+        return chars;
+    }
+
+    private static void bubbleSort(Spec spec, Random random, OutputWriter writer) throws IOException {
+        int[] a = randomInts(random, spec.size, 1, 2000000);
+
+        switch(spec.shape) {
+            case CHAIN:
+                Arrays.sort(a);
+                break;
+            case STAR:
+                Arrays.sort(a);
+                perturb(a, random);
+                break;
+            case ADVERSARIAL:
+                Arrays.sort(a);
+                reverse(a);
+                break;
+            default:
+        }
+
+        writer.write(a.length).newLine();
+        writeRow(writer, a);
+    }
+
+    /**
+     * Lays out a crossword on a 10x10 grid with about size across slots
+     * (at most five) and fills it with random letters, so it always has
+     * a solution.
+     */
+    private static void crosswordPuzzle(Spec spec, Random random, OutputWriter writer) throws IOException {
+        int side = 10;
+        int acrossSlots = Math.max(1, Math.min(spec.size, side / 2));
+        char[][] grid = new char[side][side];
+
+        for(char[] row : grid) {
+            Arrays.fill(row, '+');
+        }
+
+        int width = spec.shape == Shape.CHAIN || spec.shape == Shape.ADVERSARIAL ? 5 : side;
+
+        for(int slot = 0; slot < acrossSlots; slot++) {
+            Arrays.fill(grid[2 * slot], 0, width, '-');
+        }
+
+        int height = 2 * acrossSlots - 1;
+
+        for(int column = 0; column < width; column += 2) {
+            boolean down;
+
+            switch(spec.shape) {
+                case CHAIN:
+                case ADVERSARIAL:
+                    down = column == 0;
+                    break;
+                case STAR:
+                    // Every across word hangs off one central down word
+                    down = column == side / 2 - 1;
+                    break;
+                default:
+                    down = random.nextInt(3) == 0;
+            }
+
+            if(!down || height < 2) continue;
+
+            for(int row = 0; row < height; row++) {
+                grid[row][column] = '-';
+            }
+        }
+
+        char[][] letters = new char[side][side];
+
+        for(int y = 0; y < side; y++) {
+            for(int x = 0; x < side; x++) {
+                letters[y][x] = (char) ('A' + random.nextInt(26));
+            }
+        }
+
+        List<String> words = new ArrayList<>();
+
+        for(int y = 0; y < side; y++) {
+            for(int x = 0; x < side; x++) {
+                if(grid[y][x] != '-') continue;
+
+                if((x == 0 || grid[y][x - 1] != '-') && x + 1 < side && grid[y][x + 1] == '-') {
+                    StringBuilder word = new StringBuilder();
+                    for(int i = x; i < side && grid[y][i] == '-'; i++) word.append(letters[y][i]);
+                    words.add(word.toString());
+                }
+
+                if((y == 0 || grid[y - 1][x] != '-') && y + 1 < side && grid[y + 1][x] == '-') {
+                    StringBuilder word = new StringBuilder();
+                    for(int i = y; i < side && grid[i][x] == '-'; i++) word.append(letters[i][x]);
+                    words.add(word.toString());
+                }
+            }
+        }
+
+        if(spec.shape == Shape.ADVERSARIAL)
+            Collections.reverse(words);
+        else
+            Collections.shuffle(words, random);
+
+        for(char[] row : grid) {
+            writer.write(new String(row)).newLine();
+        }
+
+        writer.write(String.join(";", words)).newLine();
+    }
+
+    private static void fibonacciNumbers(Spec spec, Random random, OutputWriter writer) throws IOException {
+        writer.write(spec.size).newLine();
+    }
+
+    static int[] filled(int n, int value) {
+        int[] values = new int[n];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    /**
+     * Distinct positive even ints, other than excluded, that all start
+     * probing at slot 0 of any IntIntOpenHashMap of up to 2^18 slots.
+     * The map's hash multiplies by a Fibonacci constant and folds the
+     * high half into the low half. The fold is its own inverse, so each
+     * key is a hash with its low 18 bits clear, unfolded and multiplied
+     * by the constant's inverse modulo 2^32.
+     */
+    static int[] collidingEvenKeys(int excluded) {
+        int[] keys = new int[1 << 14];
+        int count = 0;
+
+        for(int high = 1; high < 1 << 14; high++) {
+            int hash = high << 18;
+            int key = (hash ^ (hash >>> 16)) * FIBONACCI_INVERSE;
+
+            if(key > 0 && (key & 1) == 0 && key != excluded)
+                keys[count++] = key;
+        }
+
+        return Arrays.copyOf(keys, count);
+    }
+
+    /**
+     * Writes queries whose costs contain exactly one matching pair.
+     * The pair is an odd cost plus an even cost, and every other cost is
+     * a different even number, so no other two flavors add up to money.
+     * ADVERSARIAL puts the pair last, sets money above four times the
+     * number of costs so that the costs are hashed rather than directly
+     * addressed, and fills the rest with collidingEvenKeys, repeating
+     * them as needed, so every insert walks one long probe run.
+     */
+    private static void iceCreamParlor(Spec spec, Random random, OutputWriter writer) throws IOException {
+        writer.write(spec.queries).newLine();
+
+        for(int q = 0; q < spec.queries; q++) {
+            int n = Math.max(spec.size, 2);
+            int[] costs = new int[n];
+            int odd, even, first, second;
+
+            if(spec.shape == Shape.ADVERSARIAL) {
+                odd = 1;
+                even = 8 * n + 2;
+                first = n - 2;
+                second = n - 1;
+
+                int[] keys = collidingEvenKeys(even);
+
+                for(int i = 0; i < n; i++) {
+                    costs[i] = keys[i % keys.length];
+                }
+            } else {
+                odd = 1 + 2 * random.nextInt(50000);
+                even = 2 + 2 * random.nextInt(50000);
+                first = random.nextInt(n);
+                second = random.nextInt(n - 1);
+                if(second >= first) second++;
+
+                for(int i = 0; i < n; i++) {
+                    int cost;
+                    do {
+                        cost = 2 + 2 * random.nextInt(50000);
+                    } while(cost == even);
+                    costs[i] = cost;
+                }
+            }
+
+            costs[first] = odd;
+            costs[second] = even;
+
+            writer.write(odd + even).newLine();
+            writer.write(n).newLine();
+            writeRow(writer, costs);
+        }
+    }
+
+    private static void luckBalance(Spec spec, Random random, OutputWriter writer) throws IOException {
+        int n = spec.size;
+
+        writer.write(n).write(' ').write(n / 4).newLine();
+
+        for(int i = 0; i < n; i++) {
+            int luck;
+            int important;
+
+            switch(spec.shape) {
+                case ADVERSARIAL:
+                    // Everything important, in ascending order, which is
+                    // the worst insertion order for a heap
+                    luck = (int) ((long) i * 10000 / Math.max(n, 1));
+                    important = 1;
+                    break;
+                case CHAIN:
+                    luck = 10000 - (int) ((long) i * 10000 / Math.max(n, 1));
+                    important = 1;
+                    break;
+                default:
+                    luck = random.nextInt(10001);
+                    important = random.nextInt(2);
+            }
+
+            writer.write(luck).write(' ').write(important).newLine();
+        }
+    }
+
+    private static void magicSquareForming(Spec spec, Random random, OutputWriter writer) throws IOException {
+        for(int i = 0; i < 3; i++) {
+            writeRow(writer, randomInts(random, 3, 1, 9));
+        }
+    }
+
+    private static void markAndToys(Spec spec, Random random, OutputWriter writer) throws IOException {
+        // ADVERSARIAL prices are cheap enough that the budget covers
+        // nearly every toy, so the whole sorted array is walked
+        int maxPrice = spec.shape == Shape.ADVERSARIAL ? 1000 : 1000000000;
+        int[] prices = randomInts(random, spec.size, 1, maxPrice);
+        int k = 1000000000;
+
+        writer.write(prices.length).write(' ').write(k).newLine();
+        writeRow(writer, prices);
+    }
+
+    private static void maxArraySum(Spec spec, Random random, OutputWriter writer) throws IOException {
+        int[] arr = randomInts(random, spec.size, -10000, 10000);
+
+        if(spec.shape == Shape.ADVERSARIAL) {
+            // Alternate big and small values so that the best subset keeps
+            // switching between the two interleavings
+            for(int i = 0; i < arr.length; i++) {
+                arr[i] = i % 2 == 0 ? 10000 - random.nextInt(10) : 9990 + random.nextInt(10);
+            }
+        }
+
+        writer.write(arr.length).newLine();
+        writeRow(writer, arr);
+    }
+
+    private static void perturb(int[] a, Random random) {
+        for(int swaps = 0; swaps < Math.max(1, a.length / 100); swaps++) {
+            int i = random.nextInt(a.length);
+            int j = Math.min(a.length - 1, i + 1 + random.nextInt(8));
+            int tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+        }
+    }
+
+    static int[] randomInts(Random random, int n, int min, int max) {
+        int[] values = new int[n];
+
+        for(int i = 0; i < n; i++) {
+            values[i] = min + random.nextInt(max - min + 1);
+        }
+
+        return values;
+    }
+
+    private static void recursiveStaircase(Spec spec, Random random, OutputWriter writer) throws IOException {
+        writer.write(spec.queries).newLine();
+
+        for(int q = 0; q < spec.queries; q++) {
+            // Counts overflow an int above 36 steps
+            int n = spec.shape == Shape.RANDOM ? 1 + random.nextInt(Math.min(spec.size, 36)) : Math.min(spec.size, 36);
+            writer.write(n).newLine();
+        }
+    }
+
+    private static void reverse(int[] a) {
+        for(int i = 0, j = a.length - 1; i < j; i++, j--) {
+            int tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+        }
+    }
+
+    /**
+     * size is the number of cities. RANDOM graphs get size random roads;
+     * tree shapes get the size - 1 roads of the matching tree. Roads are
+     * always cheaper than libraries, so every component gets walked.
+     */
+    private static void roadsAndLibraries(Spec spec, Random random, OutputWriter writer) throws IOException {
+        writer.write(spec.queries).newLine();
+
+        for(int q = 0; q < spec.queries; q++) {
+            int n = Math.max(spec.size, 1);
+            int[][] roads;
+
+            if(spec.shape == Shape.RANDOM) {
+                roads = new int[n][2];
+
+                for(int i = 0; i < n && n > 1; i++) {
+                    int u = 1 + random.nextInt(n);
+                    int v = 1 + random.nextInt(n - 1);
+                    if(v >= u) v++;
+                    roads[i][0] = u;
+                    roads[i][1] = v;
+                }
+
+                if(n == 1) roads = new int[0][2];
+            } else {
+                roads = treeEdges(spec.shape, n, random);
+            }
+
+            writer.write(n).write(' ').write(roads.length).write(' ')
+                  .write(1 + random.nextInt(100000)).write(' ')
+                  .write(1).newLine();
+            writeEdges(writer, roads);
+        }
+    }
+
+    /**
+     * Builds the n - 1 edges of a tree on nodes 1..n: a path (CHAIN),
+     * a hub (STAR), a random recursive tree (RANDOM) or a broom, a long
+     * path ending in a fan of leaves (ADVERSARIAL). Edges are shuffled
+     * and their endpoints randomly swapped.
+     */
+    static int[][] treeEdges(Shape shape, int n, Random random) {
+        int[][] edges = new int[Math.max(n - 1, 0)][2];
+
+        for(int i = 1; i < n; i++) {
+            int parent;
+
+            switch(shape) {
+                case CHAIN:
+                    parent = i;
+                    break;
+                case STAR:
+                    parent = 1;
+                    break;
+                case ADVERSARIAL:
+                    parent = i <= n / 2 ? i : n / 2;
+                    break;
+                default:
+                    parent = 1 + random.nextInt(i);
+            }
+
+            boolean flip = random.nextBoolean();
+            edges[i - 1][0] = flip ? i + 1 : parent;
+            edges[i - 1][1] = flip ? parent : i + 1;
+        }
+
+        for(int i = edges.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int[] tmp = edges[i];
+            edges[i] = edges[j];
+            edges[j] = tmp;
+        }
+
+        return edges;
+    }
+
+    private static void writeEdges(OutputWriter writer, int[][] edges) throws IOException {
+        for(int[] edge : edges) {
+            writer.write(edge[0]).write(' ').write(edge[1]).newLine();
+        }
+    }
+
+    private static void writeRow(OutputWriter writer, int[] values) throws IOException {
+        for(int i = 0; i < values.length; i++) {
+            if(i > 0) writer.write(' ');
+            writer.write(values[i]);
+        }
+
+        writer.newLine();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2 || !GENERATORS.containsKey(args[0])) {
+            System.err.println("Usage: InputGenerator <problem> <size> [shape] [seed] [queries]");
+            System.err.println("Problems: " + String.join(", ", GENERATORS.keySet()));
+            System.err.println("Shapes: " + Arrays.toString(Shape.values()));
+            System.exit(1);
+        }
+
+        Generator generator = GENERATORS.get(args[0]);
+        int size = Integer.parseInt(args[1]);
+        Shape shape = args.length > 2 ? Shape.valueOf(args[2].toUpperCase()) : Shape.RANDOM;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+        int queries = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+
+        OutputWriter writer = OutputWriter.fromEnvironment();
+
+        generator.generate(new Spec(size, shape, queries), new Random(seed), writer);
+
+        writer.close();
+    }
+}
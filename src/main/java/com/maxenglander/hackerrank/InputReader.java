@@ -0,0 +1,190 @@
+package com.maxenglander.hackerrank;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.function.IntConsumer;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Reads whitespace-separated ints, longs and tokens straight out of a
+ * large byte buffer. Unlike Scanner, nothing is routed through String,
+ * split() or regular expressions, so parsing a row of numbers allocates
+ * nothing beyond the values themselves.
+ */
+public class InputReader implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream inputStream;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private long consumed;
+    private byte[] token;
+
+    InputReader(InputStream inputStream) {
+        this(inputStream, BUFFER_SIZE);
+    }
+
+    InputReader(InputStream inputStream, int bufferSize) {
+        this.inputStream = inputStream;
+        this.buffer = new byte[bufferSize];
+        this.position = 0;
+        this.limit = 0;
+        this.consumed = 0;
+        this.token = new byte[64];
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    /**
+     * Parses the next n ints and hands each one to the consumer as soon
+     * as it is read, without collecting them into an array.
+     */
+    void forEachInt(int n, IntConsumer consumer) throws IOException {
+        for(int i = 0; i < n; i++) {
+            consumer.accept(nextInt());
+        }
+    }
+
+    /**
+     * Hands each byte of the next token to the consumer as it is read.
+     * The whole token is always consumed, even if the consumer has
+     * stopped caring about it.
+     */
+    void forEachTokenByte(IntConsumer consumer) throws IOException {
+        int b = skipWhitespace();
+
+        if(b == -1)
+            throw new EOFException("Expected a token but reached end of input");
+
+        while(b != -1 && !isWhitespace(b)) {
+            consumer.accept(b);
+            b = read();
+        }
+    }
+
+    static InputReader from(InputStream inputStream) {
+        return new InputReader(inputStream);
+    }
+
+    int nextInt() throws IOException {
+        long value = nextLong();
+
+        if(value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw mismatch("Value out of int range: " + value);
+
+        return (int) value;
+    }
+
+    int[] nextIntArray(int n) throws IOException {
+        int[] values = new int[n];
+
+        for(int i = 0; i < n; i++) {
+            values[i] = nextInt();
+        }
+
+        return values;
+    }
+
+    long nextLong() throws IOException {
+        int b = skipWhitespace();
+
+        if(b == -1)
+            throw new EOFException("Expected a number but reached end of input");
+
+        boolean negative = b == '-';
+        if(negative) b = read();
+
+        if(b < '0' || b > '9')
+            throw mismatch("Expected a digit but found '" + (char) b + "'");
+
+        // Accumulate in the negative range, which reaches one further
+        // than the positive one, and refuse any digit that would go
+        // past the limit instead of letting the value wrap.
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+
+        while(b >= '0' && b <= '9') {
+            int digit = b - '0';
+
+            if(value < (limit + digit) / 10)
+                throw mismatch("Number out of long range");
+
+            value = value * 10 - digit;
+            b = read();
+        }
+
+        if(b != -1 && !isWhitespace(b))
+            throw mismatch("Unexpected character '" + (char) b + "' in number");
+
+        return negative ? value : -value;
+    }
+
+    /**
+     * Returns the next run of non-whitespace bytes as a String. The
+     * bytes are collected in a reusable scratch array, so the String
+     * is the only allocation.
+     */
+    String nextToken() throws IOException {
+        int b = skipWhitespace();
+
+        if(b == -1)
+            throw new EOFException("Expected a token but reached end of input");
+
+        int length = 0;
+
+        while(b != -1 && !isWhitespace(b)) {
+            if(length == token.length)
+                token = Arrays.copyOf(token, token.length * 2);
+
+            token[length++] = (byte) b;
+            b = read();
+        }
+
+        return new String(token, 0, length, ISO_8859_1);
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f';
+    }
+
+    /**
+     * An InputMismatchException tagged with the offset, in bytes from
+     * the start of the input, just past the byte that gave it away.
+     */
+    private InputMismatchException mismatch(String message) {
+        return new InputMismatchException(message + " at byte " + (consumed + position));
+    }
+
+    private int read() throws IOException {
+        if(position == limit) {
+            consumed += limit;
+            limit = inputStream.read(buffer, 0, buffer.length);
+            position = 0;
+
+            if(limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+
+        return buffer[position++] & 0xff;
+    }
+
+    private int skipWhitespace() throws IOException {
+        int b = read();
+
+        while(b != -1 && isWhitespace(b)) {
+            b = read();
+        }
+
+        return b;
+    }
+}
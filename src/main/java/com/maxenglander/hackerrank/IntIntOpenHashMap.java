@@ -0,0 +1,230 @@
+package com.maxenglander.hackerrank;
+
+import java.util.Arrays;
+
+/**
+ * An int-to-int hash map with open addressing and linear probing, so
+ * that neither keys nor values are boxed and there are no entry objects.
+ *
+ * Zero marks a free slot in the keys array, so a zero key is kept to
+ * one side. Removal shifts later entries of the probe run back into the
+ * hole instead of leaving tombstones, which keeps lookups short no
+ * matter how many keys have come and gone.
+ */
+public class IntIntOpenHashMap {
+    private static final int FREE_KEY = 0;
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int resizeAt;
+    private int size;
+
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    IntIntOpenHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Sizes the table to hold the expected number of keys without
+     * growing. The table is kept at most half full.
+     */
+    IntIntOpenHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Adds delta to the value of key, treating a missing key as zero,
+     * and returns the new value.
+     */
+    int addTo(int key, int delta) {
+        if(key == FREE_KEY) {
+            if(!hasFreeKey) {
+                hasFreeKey = true;
+                freeKeyValue = 0;
+                size++;
+            }
+
+            return freeKeyValue += delta;
+        }
+
+        int slot = slotOf(key);
+
+        if(keys[slot] == key)
+            return values[slot] += delta;
+
+        insertAt(slot, key, delta);
+
+        return delta;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = capacity / 2;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long capacity = Math.max(MIN_CAPACITY, Long.highestOneBit(Math.max(1L, expectedSize * 2L - 1)) << 1);
+
+        if(capacity > 1 << 30)
+            throw new IllegalArgumentException("Too many keys: " + expectedSize);
+
+        return (int) capacity;
+    }
+
+    void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        hasFreeKey = false;
+        freeKeyValue = 0;
+        size = 0;
+    }
+
+    boolean containsKey(int key) {
+        if(key == FREE_KEY) return hasFreeKey;
+
+        return keys[slotOf(key)] == key;
+    }
+
+    /**
+     * Returns the value of key, or defaultValue if it is missing.
+     */
+    int get(int key, int defaultValue) {
+        if(key == FREE_KEY) return hasFreeKey ? freeKeyValue : defaultValue;
+
+        int slot = slotOf(key);
+
+        return keys[slot] == key ? values[slot] : defaultValue;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+
+        allocate(keys.length * 2);
+
+        for(int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+
+            if(key == FREE_KEY) continue;
+
+            int slot = slotOf(key);
+            keys[slot] = key;
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private static int hash(int key) {
+        // Fibonacci hashing spreads sequential keys, such as small
+        // costs, across the whole table.
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void insertAt(int slot, int key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+
+        if(size - (hasFreeKey ? 1 : 0) > resizeAt) grow();
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Maps key to value and returns the previous value, or defaultValue
+     * if the key was missing.
+     */
+    int put(int key, int value, int defaultValue) {
+        if(key == FREE_KEY) {
+            int previous = hasFreeKey ? freeKeyValue : defaultValue;
+
+            if(!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+            }
+
+            freeKeyValue = value;
+
+            return previous;
+        }
+
+        int slot = slotOf(key);
+
+        if(keys[slot] == key) {
+            int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+
+        insertAt(slot, key, value);
+
+        return defaultValue;
+    }
+
+    /**
+     * Removes key and returns its value, or defaultValue if it was
+     * missing.
+     */
+    int remove(int key, int defaultValue) {
+        if(key == FREE_KEY) {
+            if(!hasFreeKey) return defaultValue;
+
+            hasFreeKey = false;
+            size--;
+
+            return freeKeyValue;
+        }
+
+        int slot = slotOf(key);
+
+        if(keys[slot] != key) return defaultValue;
+
+        int removed = values[slot];
+
+        // Walk the rest of the probe run, moving back any entry whose
+        // home slot is not between the hole and its current slot.
+        int hole = slot;
+        int next = (hole + 1) & mask;
+
+        while(keys[next] != FREE_KEY) {
+            int home = hash(keys[next]) & mask;
+
+            if(((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        keys[hole] = FREE_KEY;
+        size--;
+
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The slot holding key, or the free slot where it would go.
+     */
+    private int slotOf(int key) {
+        int slot = hash(key) & mask;
+
+        while(keys[slot] != FREE_KEY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+}
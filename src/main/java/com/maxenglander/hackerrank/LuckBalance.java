@@ -1,77 +1,372 @@
 package com.maxenglander.hackerrank;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.PriorityQueue;
-import java.util.Scanner;
 
 public class LuckBalance {
-    // Complete the luckBalance function below.
-    static int luckBalance(int losableImportantContests, int[][] contests) {
-        PriorityQueue<Integer> sortedLuckValuesOfImportantContests = new PriorityQueue<>(Integer::compareTo);
-        Integer totalLuck = 0;
+    private static final Metrics.Phases PHASES = Metrics.phases("LuckBalance");
+
+    static final int INSERTION_SORT_CUTOFF = 16;
+
+    /**
+     * The problem's bounds on luck.
+     */
+    static final int MIN_LUCK = 0;
+    static final int MAX_LUCK = 10000;
+
+    /**
+     * Keeps the luck balance of a changing set of contests, and of a
+     * changing number of important contests that may be lost.
+     *
+     * The balance is every contest's luck, less twice the luck of the
+     * important contests to win, which are the smallest ones. Fenwick
+     * trees of the counts and sums of important luck by value find that
+     * sum by descending the tree, so insert, remove and setK each cost
+     * O(log range), whatever k was before, and the balance is read back
+     * in O(1).
+     *
+     * As with CTCIBubbleSort.StreamingInversionCounter, luck arrives
+     * unannounced and cannot be compressed, so the trees span a fixed
+     * range of luck, by default the one the problem allows. Only the
+     * luck of important contests has to fall in it.
+     */
+    static class DynamicLuckBalance {
+        private final int minLuck;
+        private final int[] counts;
+        private final long[] sums;
+        private final int highestStep;
+
+        private int losableImportantContests;
+        private int numImportantContests = 0;
+        private int numUnimportantContests = 0;
+        private long totalLuck = 0;
+        private long balance = 0;
+
+        DynamicLuckBalance(int losableImportantContests) {
+            this(losableImportantContests, MIN_LUCK, MAX_LUCK);
+        }
+
+        DynamicLuckBalance(int losableImportantContests, int minLuck, int maxLuck) {
+            if(losableImportantContests < 0)
+                throw new IllegalArgumentException("Losable important contests must not be negative: " + losableImportantContests);
+
+            int size = maxLuck - minLuck + 1;
+
+            this.minLuck = minLuck;
+            this.counts = new int[size + 1];
+            this.sums = new long[size + 1];
+            this.highestStep = Integer.highestOneBit(size);
+            this.losableImportantContests = losableImportantContests;
+        }
+
+        static DynamicLuckBalance from(int losableImportantContests, int[][] contests) {
+            DynamicLuckBalance balance = new DynamicLuckBalance(losableImportantContests);
+
+            for(int[] contest : contests) {
+                balance.insert(contest[0], contest[1] == 1);
+            }
+
+            return balance;
+        }
+
+        private void add(int luck, int delta) {
+            for(int i = luck - minLuck + 1; i < counts.length; i += i & -i) {
+                counts[i] += delta;
+                sums[i] += (long) delta * luck;
+            }
+        }
+
+        /**
+         * The number of important contests with exactly this luck.
+         */
+        int countOf(int luck) {
+            int position = positionOf(luck);
+            int count = 0;
+
+            for(int i = position + 1; i > 0; i -= i & -i) {
+                count += counts[i];
+            }
+
+            for(int i = position; i > 0; i -= i & -i) {
+                count -= counts[i];
+            }
+
+            return count;
+        }
 
-        for(int i = 0; i < contests.length; i++) {
-            int[] contest = contests[i];
-            int luck = contest[0];
-            boolean important = contest[1] == 1;
+        long getBalance() {
+            return balance;
+        }
+
+        int getLosableImportantContests() {
+            return losableImportantContests;
+        }
+
+        void insert(int luck, boolean important) {
+            if(important) {
+                positionOf(luck);
+                add(luck, 1);
+                numImportantContests++;
+            } else {
+                numUnimportantContests++;
+            }
 
             totalLuck += luck;
+            update();
+        }
 
+        private int positionOf(int luck) {
+            int position = luck - minLuck;
+
+            if(position < 0 || position >= counts.length - 1)
+                throw new IllegalArgumentException("Luck out of range: " + luck);
+
+            return position;
+        }
+
+        /**
+         * Removes one contest with this luck. Unimportant luck is not
+         * indexed, so an unimportant contest is only checked for by
+         * count: removing one when there are none is rejected, but its
+         * luck is taken on trust.
+         */
+        void remove(int luck, boolean important) {
             if(important) {
-                System.err.println("Adding luck getValue to priority queue: " + luck);
-                sortedLuckValuesOfImportantContests.add(luck);
+                if(countOf(luck) == 0)
+                    throw new IllegalArgumentException("No important contest with luck " + luck);
+
+                add(luck, -1);
+                numImportantContests--;
+            } else {
+                if(numUnimportantContests == 0)
+                    throw new IllegalArgumentException("No unimportant contest to remove");
+
+                numUnimportantContests--;
             }
+
+            totalLuck -= luck;
+            update();
         }
 
-        System.err.println("Total luck: " + totalLuck);
+        void setK(int losableImportantContests) {
+            if(losableImportantContests < 0)
+                throw new IllegalArgumentException("Losable important contests must not be negative: " + losableImportantContests);
+
+            this.losableImportantContests = losableImportantContests;
+            update();
+        }
 
-        int importantContestsToWin = sortedLuckValuesOfImportantContests.size() - losableImportantContests;
+        /**
+         * The total luck of the count contests with the least luck,
+         * found by descending the trees to the last position whose
+         * prefix holds fewer than count contests.
+         */
+        private long smallestLuck(int count) {
+            int position = 0;
+            int remaining = count;
+            long luck = 0;
 
-        for(int i = 0; i < importantContestsToWin; i++) {
-            Integer luck = sortedLuckValuesOfImportantContests.poll();
-            System.err.println("Deducting getValue from total luck: " + luck);
-            totalLuck -= (2 * luck);
+            for(int step = highestStep; step > 0; step >>= 1) {
+                int next = position + step;
+
+                if(next < counts.length && counts[next] < remaining) {
+                    position = next;
+                    remaining -= counts[next];
+                    luck += sums[next];
+                }
+            }
+
+            // The rest all have the luck at the next position.
+            return luck + (long) remaining * (minLuck + position);
+        }
+
+        private void update() {
+            int importantContestsToWin = numImportantContests - losableImportantContests;
+
+            balance = importantContestsToWin <= 0
+                    ? totalLuck
+                    : totalLuck - 2 * smallestLuck(importantContestsToWin);
+        }
+    }
+
+    static void heapSort(int[] a, int from, int to) {
+        int n = to - from;
+
+        for(int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, from, i, n);
+        }
+
+        for(int size = n - 1; size > 0; size--) {
+            int max = a[from];
+            a[from] = a[from + size];
+            a[from + size] = max;
+            siftDown(a, from, 0, size);
+        }
+    }
+
+    static void insertionSort(int[] a, int from, int to) {
+        for(int i = from + 1; i < to; i++) {
+            int value = a[i];
+            int j = i - 1;
+
+            while(j >= from && a[j] > value) {
+                a[j + 1] = a[j];
+                j--;
+            }
+
+            a[j + 1] = value;
+        }
+    }
+
+    /**
+     * Loses every unimportant contest, and the losableImportantContests
+     * important contests with the most luck, and wins the rest. Only
+     * the important contests to win need to be told apart from the
+     * others, not sorted, so they are selected in expected O(n) time.
+     */
+    // Complete the luckBalance function below.
+    static long luckBalance(int losableImportantContests, int[][] contests) {
+        long totalLuck = 0;
+        int numImportantContests = 0;
+
+        for(int[] contest : contests) {
+            totalLuck += contest[0];
+
+            if(contest[1] == 1) numImportantContests++;
         }
 
-        while(sortedLuckValuesOfImportantContests.size() > 0) {
-            System.err.println("Next item in priority queue: " + sortedLuckValuesOfImportantContests.poll());
+        int importantContestsToWin = numImportantContests - losableImportantContests;
+
+        if(Diagnostics.DEBUG) Diagnostics.debug("Total luck: " + totalLuck);
+
+        if(importantContestsToWin <= 0) return totalLuck;
+
+        int[] importantLuck = new int[numImportantContests];
+        int numImportantLuck = 0;
+
+        for(int[] contest : contests) {
+            if(contest[1] == 1) importantLuck[numImportantLuck++] = contest[0];
+        }
+
+        // Afterwards the contests to win are the first ones, in no
+        // particular order.
+        select(importantLuck, importantContestsToWin - 1);
+
+        for(int i = 0; i < importantContestsToWin; i++) {
+            totalLuck -= 2L * importantLuck[i];
         }
 
         return totalLuck;
     }
 
-    private static final Scanner scanner = new Scanner(System.in);
+    private static int medianOf(int a, int b, int c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
 
-    public static void main(String[] args) throws IOException {
-        BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(System.getenv("OUTPUT_PATH")));
+    /**
+     * Reorders a so that a[rank] holds the value it would hold if a
+     * were sorted, with nothing greater before it and nothing smaller
+     * after it. An introselect: quickselect with median-of-three pivots
+     * and a three-way partition, so runs of equal luck are settled at
+     * once, falling back to heapsort of what is left if partitioning
+     * keeps going badly. Works in place.
+     */
+    static void select(int[] a, int rank) {
+        if(rank < 0 || rank >= a.length)
+            throw new IllegalArgumentException("Rank out of range: " + rank);
+
+        int from = 0;
+        int to = a.length;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(a.length));
 
-        String[] nk = scanner.nextLine().split(" ");
+        while(to - from > INSERTION_SORT_CUTOFF) {
+            if(depthLimit-- == 0) {
+                heapSort(a, from, to);
+                return;
+            }
+
+            int pivot = medianOf(a[from], a[(from + to) >>> 1], a[to - 1]);
+
+            // Partition into [from, less) < pivot, [less, greater) equal
+            // to it, and [greater, to) > pivot.
+            int less = from;
+            int greater = to;
+            int i = from;
+
+            while(i < greater) {
+                int value = a[i];
+
+                if(value < pivot) {
+                    a[i++] = a[less];
+                    a[less++] = value;
+                } else if(value > pivot) {
+                    a[i] = a[--greater];
+                    a[greater] = value;
+                } else {
+                    i++;
+                }
+            }
+
+            if(rank < less)
+                to = less;
+            else if(rank >= greater)
+                from = greater;
+            else
+                return;
+        }
+
+        insertionSort(a, from, to);
+    }
+
+    private static void siftDown(int[] a, int from, int i, int size) {
+        int value = a[from + i];
+
+        while(true) {
+            int child = 2 * i + 1;
+
+            if(child >= size) break;
+            if(child + 1 < size && a[from + child + 1] > a[from + child]) child++;
+            if(a[from + child] <= value) break;
 
-        int n = Integer.parseInt(nk[0]);
+            a[from + i] = a[from + child];
+            i = child;
+        }
+
+        a[from + i] = value;
+    }
+
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        long started = Metrics.nanoTime();
 
-        int k = Integer.parseInt(nk[1]);
+        int n = reader.nextInt();
+
+        int k = reader.nextInt();
 
         int[][] contests = new int[n][2];
 
         for (int i = 0; i < n; i++) {
-            String[] contestsRowItems = scanner.nextLine().split(" ");
-            scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
-
-            for (int j = 0; j < 2; j++) {
-                int contestsItem = Integer.parseInt(contestsRowItems[j]);
-                contests[i][j] = contestsItem;
-            }
+            contests[i][0] = reader.nextInt();
+            contests[i][1] = reader.nextInt();
         }
 
-        int result = luckBalance(k, contests);
+        PHASES.parse.recordSince(started);
+
+        started = Metrics.nanoTime();
+        long result = luckBalance(k, contests);
+        PHASES.solve.recordSince(started);
+
+        writer.write(result);
+        writer.newLine();
+    }
+
+    public static void main(String[] args) throws IOException {
+        OutputWriter writer = OutputWriter.fromEnvironment();
+
+        InputReader reader = InputReader.from(System.in);
 
-        bufferedWriter.write(String.valueOf(result));
-        bufferedWriter.newLine();
+        run(reader, writer);
 
-        bufferedWriter.close();
+        writer.close();
 
-        scanner.close();
+        reader.close();
     }
 }
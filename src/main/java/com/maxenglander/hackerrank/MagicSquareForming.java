@@ -1,13 +1,12 @@
 package com.maxenglander.hackerrank;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Scanner;
 
 public class MagicSquareForming {
+    private static final Metrics.Phases PHASES = Metrics.phases("MagicSquareForming");
+
     static class Square {
         int[][] values;
 
@@ -57,17 +56,13 @@ public class MagicSquareForming {
         return new Square(s);
     }
 
-    static Square scannerToSquare(Scanner scanner) {
+    static Square readerToSquare(InputReader reader) throws IOException {
 
         int[][] s = new int[3][3];
 
         for (int i = 0; i < 3; i++) {
-            String[] sRowItems = scanner.nextLine().split(" ");
-            scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
-
             for (int j = 0; j < 3; j++) {
-                int sItem = Integer.parseInt(sRowItems[j]);
-                s[i][j] = sItem;
+                s[i][j] = reader.nextInt();
             }
         }
 
@@ -131,23 +126,31 @@ public class MagicSquareForming {
         return minDistance;
     }
 
-    public static void main(String[] args) throws IOException {
-        BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(System.getenv("OUTPUT_PATH")));
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        long started = Metrics.nanoTime();
+        Square square = readerToSquare(reader);
+        PHASES.parse.recordSince(started);
+
+        started = Metrics.nanoTime();
+        int result = formingMagicSquare(square);
+        PHASES.solve.recordSince(started);
 
-        final Square square;
+        writer.write(result).newLine();
+    }
+
+    public static void main(String[] args) throws IOException {
+        OutputWriter writer = OutputWriter.fromEnvironment();
 
         if(args.length > 0) {
-            square = argsToSquare(args);
+            writer.write(formingMagicSquare(argsToSquare(args))).newLine();
         } else {
-            Scanner scanner = new Scanner(System.in);
-            square = scannerToSquare(scanner);
-        }
+            InputReader reader = InputReader.from(System.in);
 
-        int result = formingMagicSquare(square);
+            run(reader, writer);
 
-        bufferedWriter.write(String.valueOf(result));
-        bufferedWriter.newLine();
+            reader.close();
+        }
 
-        bufferedWriter.close();
+        writer.close();
     }
 }
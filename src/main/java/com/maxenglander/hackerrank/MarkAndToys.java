@@ -1,13 +1,81 @@
 package com.maxenglander.hackerrank;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Arrays;
-import java.util.Scanner;
+import java.util.function.IntConsumer;
 
 public class MarkAndToys {
+    /**
+     * Picks toys as prices stream in, keeping the cheapest set seen so
+     * far in a max-heap and dropping the dearest toy whenever the total
+     * goes over budget. Memory grows with the answer, not the input.
+     */
+    static class ToyPicker implements IntConsumer {
+        private final int amountToSpend;
+        private int[] heap = new int[16];
+        private int size = 0;
+        private long spent = 0;
+
+        ToyPicker(int amountToSpend) {
+            this.amountToSpend = amountToSpend;
+        }
+
+        @Override
+        public void accept(int price) {
+            if(price > amountToSpend) return;
+
+            push(price);
+            spent += price;
+
+            while(spent > amountToSpend) {
+                spent -= pop();
+            }
+        }
+
+        int getToyCount() {
+            return size;
+        }
+
+        private int pop() {
+            int max = heap[0];
+            int last = heap[--size];
+            int i = 0;
+
+            while(true) {
+                int child = 2 * i + 1;
+
+                if(child >= size) break;
+                if(child + 1 < size && heap[child + 1] > heap[child]) child++;
+                if(heap[child] <= last) break;
+
+                heap[i] = heap[child];
+                i = child;
+            }
+
+            heap[i] = last;
+
+            return max;
+        }
+
+        private void push(int price) {
+            if(size == heap.length)
+                heap = Arrays.copyOf(heap, size * 2);
+
+            int i = size++;
+
+            while(i > 0) {
+                int parent = (i - 1) / 2;
+
+                if(heap[parent] >= price) break;
+
+                heap[i] = heap[parent];
+                i = parent;
+            }
+
+            heap[i] = price;
+        }
+    }
+
     static class Input {
         int amountToSpend;
         int[] toyPrices;
@@ -35,6 +103,14 @@ public class MarkAndToys {
         return maxToys;
     }
 
+    static int maximumToys(InputReader reader, int n, int k) throws IOException {
+        ToyPicker picker = new ToyPicker(k);
+
+        reader.forEachInt(n, picker);
+
+        return picker.getToyCount();
+    }
+
     static Input argsToInput(String[] args) {
         int n = Integer.parseInt(args[0]);
         int k = Integer.parseInt(args[1]);
@@ -47,44 +123,31 @@ public class MarkAndToys {
         return new Input(k, prices);
     }
 
-    static Input streamToInput(InputStream inputStream) {
-        Scanner scanner = new Scanner(inputStream);
-        String[] nk = scanner.nextLine().split(" ");
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        int n = reader.nextInt();
 
-        int n = Integer.parseInt(nk[0]);
+        int k = reader.nextInt();
 
-        int k = Integer.parseInt(nk[1]);
-
-        int[] prices = new int[n];
-
-        String[] pricesItems = scanner.nextLine().split(" ");
-        scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
-
-        for (int i = 0; i < n; i++) {
-            int pricesItem = Integer.parseInt(pricesItems[i]);
-            prices[i] = pricesItem;
-        }
-
-        scanner.close();
-
-        return new Input(k, prices);
+        QueryExecutor.sequential("MarkAndToys").stream(1, reader, writer,
+                r -> maximumToys(r, n, k),
+                (w, result) -> w.write(result).newLine());
     }
 
     public static void main(String[] args) throws IOException {
-        BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(System.getenv("OUTPUT_PATH")));
+        OutputWriter writer = OutputWriter.fromEnvironment();
 
-        Input input;
         if(args.length > 0) {
-            input = argsToInput(args);
+            Input input = argsToInput(args);
+
+            writer.write(maximumToys(input.toyPrices, input.amountToSpend)).newLine();
         } else {
-            input = streamToInput(System.in);
-        }
+            InputReader reader = InputReader.from(System.in);
 
-        int result = maximumToys(input.toyPrices, input.amountToSpend);
+            run(reader, writer);
 
-        bufferedWriter.write(String.valueOf(result));
-        bufferedWriter.newLine();
+            reader.close();
+        }
 
-        bufferedWriter.close();
+        writer.close();
     }
 }
@@ -1,19 +1,21 @@
 package com.maxenglander.hackerrank;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Scanner;
+import java.util.function.IntConsumer;
 
 public class MaxArraySum {
-
-    static int maxSubsetSum(int[] arr) {
-        int maxSum = 0;
-        int previousMaxSum = 0;
-
-        for(int i = 0; i < arr.length; i++) {
+    /**
+     * The running state of maxSubsetSum. Only the best sums including
+     * and excluding the previous element are needed, so values can be
+     * fed in one at a time as they are parsed.
+     */
+    static class MaxSubsetSum implements IntConsumer {
+        private int maxSum = 0;
+        private int previousMaxSum = 0;
+
+        @Override
+        public void accept(int value) {
             int sum = 0;
-            int value = arr[i];
 
             if(value > 0) {
                 sum = value + previousMaxSum;
@@ -28,34 +30,46 @@ public class MaxArraySum {
             }
         }
 
-        return maxSum;
+        int getMaxSum() {
+            return maxSum;
+        }
     }
 
-    private static final Scanner scanner = new Scanner(System.in);
+    static int maxSubsetSum(int[] arr) {
+        MaxSubsetSum maxSubsetSum = new MaxSubsetSum();
 
-    public static void main(String[] args) throws IOException {
-        BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(System.getenv("OUTPUT_PATH")));
+        for(int i = 0; i < arr.length; i++) {
+            maxSubsetSum.accept(arr[i]);
+        }
 
-        int n = scanner.nextInt();
-        scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+        return maxSubsetSum.getMaxSum();
+    }
 
-        int[] arr = new int[n];
+    static int maxSubsetSum(InputReader reader, int n) throws IOException {
+        MaxSubsetSum maxSubsetSum = new MaxSubsetSum();
 
-        String[] arrItems = scanner.nextLine().split(" ");
-        scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+        reader.forEachInt(n, maxSubsetSum);
 
-        for (int i = 0; i < n; i++) {
-            int arrItem = Integer.parseInt(arrItems[i]);
-            arr[i] = arrItem;
-        }
+        return maxSubsetSum.getMaxSum();
+    }
+
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        int n = reader.nextInt();
+
+        QueryExecutor.sequential("MaxArraySum").stream(1, reader, writer,
+                r -> maxSubsetSum(r, n),
+                (w, res) -> w.write(res).newLine());
+    }
+
+    public static void main(String[] args) throws IOException {
+        OutputWriter writer = OutputWriter.fromEnvironment();
 
-        int res = maxSubsetSum(arr);
+        InputReader reader = InputReader.from(System.in);
 
-        bufferedWriter.write(String.valueOf(res));
-        bufferedWriter.newLine();
+        run(reader, writer);
 
-        bufferedWriter.close();
+        writer.close();
 
-        scanner.close();
+        reader.close();
     }
 }
@@ -0,0 +1,252 @@
+package com.maxenglander.hackerrank;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Counters and latency histograms, enabled with -Dhackerrank.metrics=PATH.
+ *
+ * The registry is dumped to PATH when the JVM exits, or to stderr if
+ * PATH is empty or "-". A SolverServer client can also ask for a dump
+ * at any time with a METRICS request.
+ *
+ * Like the Diagnostics levels, ENABLED is a static final, so guarded
+ * call sites cost nothing when metrics are off:
+ *
+ *     if(Metrics.ENABLED) PLANS.add(plans.size());
+ */
+public class Metrics {
+    /**
+     * A lock-free event counter.
+     */
+    static class Counter {
+        private final LongAdder count = new LongAdder();
+
+        void add(long delta) {
+            count.add(delta);
+        }
+
+        long get() {
+            return count.sum();
+        }
+
+        void increment() {
+            count.increment();
+        }
+    }
+
+    /**
+     * A lock-free histogram with log-linear buckets, in the manner of
+     * HdrHistogram: values below 2^SUB_BUCKET_BITS get a bucket each,
+     * and every power of two above that is split into 2^SUB_BUCKET_BITS
+     * buckets, so a reported value is within about 3% of the real one.
+     */
+    static class Histogram {
+        static final int SUB_BUCKET_BITS = 5;
+        static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+        static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private final LongAdder total = new LongAdder();
+
+        static int bucketOf(long value) {
+            if(value < SUB_BUCKET_COUNT) return (int) value;
+
+            int magnitude = 63 - Long.numberOfLeadingZeros(value);
+            int shift = magnitude - SUB_BUCKET_BITS;
+
+            return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        }
+
+        /**
+         * The largest value that lands in the given bucket.
+         */
+        static long highestValueIn(int bucket) {
+            if(bucket < SUB_BUCKET_COUNT) return bucket;
+
+            int shift = bucket / SUB_BUCKET_COUNT - 1;
+            long lowest = (long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift;
+
+            return lowest + (1L << shift) - 1;
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+
+        long getMax() {
+            return max.get();
+        }
+
+        long getTotal() {
+            return total.sum();
+        }
+
+        /**
+         * Returns the value at the given percentile (0 to 100), as the
+         * top of its bucket but never more than the largest value seen.
+         */
+        long percentile(double percentile) {
+            long count = getCount();
+
+            if(count == 0) return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+
+            for(int i = 0; i < BUCKET_COUNT; i++) {
+                seen += buckets.get(i);
+
+                if(seen >= rank)
+                    return Math.min(highestValueIn(i), getMax());
+            }
+
+            return getMax();
+        }
+
+        void record(long value) {
+            if(value < 0) value = 0;
+
+            buckets.incrementAndGet(bucketOf(value));
+            count.increment();
+            total.add(value);
+
+            long current = max.get();
+
+            while(value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        /**
+         * Records the nanoseconds elapsed since a start time taken with
+         * Metrics.nanoTime(). Does nothing when metrics are off.
+         */
+        void recordSince(long started) {
+            if(ENABLED) record(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * The per-solver phase latency histograms. Build is only recorded
+     * by solvers that construct a graph or board first, and that time
+     * is also part of their solve time.
+     */
+    static class Phases {
+        final Histogram parse;
+        final Histogram build;
+        final Histogram solve;
+        final Histogram write;
+
+        private Phases(String solver) {
+            this.parse = histogram(solver + ".parse");
+            this.build = histogram(solver + ".build");
+            this.solve = histogram(solver + ".solve");
+            this.write = histogram(solver + ".write");
+        }
+    }
+
+    static final String PATH_PROPERTY = "hackerrank.metrics";
+
+    static final boolean ENABLED = System.getProperty(PATH_PROPERTY) != null;
+
+    private static final ConcurrentMap<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    static {
+        if(ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(Metrics::dumpToConfiguredPath, "metrics-dump"));
+        }
+    }
+
+    private Metrics() {}
+
+    static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, key -> new Counter());
+    }
+
+    static void dump(OutputStream output) throws IOException {
+        output.write(report().getBytes(US_ASCII));
+        output.flush();
+    }
+
+    private static void dumpToConfiguredPath() {
+        String path = System.getProperty(PATH_PROPERTY);
+
+        try {
+            if(path.isEmpty() || path.equals("-")) {
+                dump(System.err);
+            } else {
+                try(OutputStream output = new FileOutputStream(path)) {
+                    dump(output);
+                }
+            }
+        } catch(IOException e) {
+            System.err.println("Failed to write metrics to " + path + ": " + e);
+        }
+    }
+
+    static Histogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * The current time for a later Histogram.recordSince, or zero
+     * without asking the clock when metrics are off.
+     */
+    static long nanoTime() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    static Phases phases(String solver) {
+        return new Phases(solver);
+    }
+
+    /**
+     * Renders every counter and every non-empty histogram, sorted by
+     * name, one per line. Histogram values are in microseconds.
+     */
+    static String report() {
+        StringBuilder report = new StringBuilder();
+
+        for(Map.Entry<String, Counter> entry : new TreeMap<>(COUNTERS).entrySet()) {
+            report.append("counter ").append(entry.getKey())
+                    .append(' ').append(entry.getValue().get()).append('\n');
+        }
+
+        for(Map.Entry<String, Histogram> entry : new TreeMap<>(HISTOGRAMS).entrySet()) {
+            Histogram histogram = entry.getValue();
+            long count = histogram.getCount();
+
+            if(count == 0) continue;
+
+            report.append("histogram ").append(entry.getKey())
+                    .append(" count=").append(count)
+                    .append(" mean=").append(micros(histogram.getTotal() / count))
+                    .append(" p50=").append(micros(histogram.percentile(50)))
+                    .append(" p90=").append(micros(histogram.percentile(90)))
+                    .append(" p99=").append(micros(histogram.percentile(99)))
+                    .append(" max=").append(micros(histogram.getMax()))
+                    .append('\n');
+        }
+
+        return report.toString();
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1fus", nanos / 1000.0);
+    }
+}
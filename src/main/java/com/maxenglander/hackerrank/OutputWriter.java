@@ -0,0 +1,148 @@
+package com.maxenglander.hackerrank;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Encodes results straight to ASCII in a reusable byte buffer and
+ * flushes it through a channel. Ints and longs are written digit by
+ * digit, so no intermediate String is created per result.
+ */
+public class OutputWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final boolean closesChannel;
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private final byte[] digits;
+    private int position;
+
+    OutputWriter(WritableByteChannel channel) {
+        this(channel, BUFFER_SIZE);
+    }
+
+    OutputWriter(WritableByteChannel channel, int bufferSize) {
+        this(channel, bufferSize, true);
+    }
+
+    private OutputWriter(WritableByteChannel channel, int bufferSize, boolean closesChannel) {
+        this.channel = channel;
+        this.closesChannel = closesChannel;
+        this.bytes = new byte[Math.max(bufferSize, 32)];
+        this.buffer = ByteBuffer.wrap(bytes);
+        this.digits = new byte[20];
+        this.position = 0;
+    }
+
+    /**
+     * Flushes, and closes the channel unless it is standard output,
+     * which belongs to the whole process.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+
+        if(closesChannel) channel.close();
+    }
+
+    void flush() throws IOException {
+        buffer.clear();
+        buffer.limit(position);
+
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        position = 0;
+    }
+
+    /**
+     * Writes to the file named by the OUTPUT_PATH environment variable,
+     * or to standard output when it is unset.
+     */
+    static OutputWriter fromEnvironment() throws IOException {
+        String outputPath = System.getenv("OUTPUT_PATH");
+
+        if(outputPath == null)
+            return toStandardOutput();
+
+        return new OutputWriter(FileChannel.open(Paths.get(outputPath), CREATE, WRITE, TRUNCATE_EXISTING));
+    }
+
+    static OutputWriter to(OutputStream outputStream) {
+        return new OutputWriter(Channels.newChannel(outputStream));
+    }
+
+    static OutputWriter toStandardOutput() {
+        return new OutputWriter(new FileOutputStream(FileDescriptor.out).getChannel(), BUFFER_SIZE, false);
+    }
+
+    OutputWriter newLine() throws IOException {
+        return write('\n');
+    }
+
+    OutputWriter write(char c) throws IOException {
+        if(position == bytes.length) flush();
+
+        bytes[position++] = (byte) c;
+
+        return this;
+    }
+
+    OutputWriter write(int value) throws IOException {
+        return write((long) value);
+    }
+
+    OutputWriter write(long value) throws IOException {
+        if(bytes.length - position < 20) flush();
+
+        // Accumulate in the negative range so that Long.MIN_VALUE
+        // does not overflow when its sign is dropped.
+        long remaining = value;
+
+        if(value < 0) {
+            bytes[position++] = '-';
+        } else {
+            remaining = -value;
+        }
+
+        int start = digits.length;
+
+        do {
+            digits[--start] = (byte) ('0' - (remaining % 10));
+            remaining /= 10;
+        } while(remaining != 0);
+
+        int length = digits.length - start;
+        System.arraycopy(digits, start, bytes, position, length);
+        position += length;
+
+        return this;
+    }
+
+    /**
+     * Writes each char of the string as a single byte; results are
+     * always plain ASCII.
+     */
+    OutputWriter write(String s) throws IOException {
+        for(int i = 0; i < s.length(); i++) {
+            if(position == bytes.length) flush();
+
+            bytes[position++] = (byte) s.charAt(i);
+        }
+
+        return this;
+    }
+}
@@ -0,0 +1,445 @@
+package com.maxenglander.hackerrank;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the independent queries of a multi-query problem.
+ *
+ * Without an executor each query is parsed, solved and printed in turn.
+ * With an executor, every query is parsed up front, all of them are
+ * solved concurrently, and results are printed in the original order.
+ *
+ * In pipelined mode the calling thread parses, one solver thread
+ * solves and one writer thread prints, handing queries and results
+ * along through bounded queues. Queries are still solved one at a
+ * time and in order, so solvers with shared state are safe, but I/O
+ * overlaps with solving. A full queue blocks the stage feeding it.
+ *
+ * Either way, the time spent parsing, solving and printing each query
+ * is recorded in the solver's Metrics phases.
+ */
+public class QueryExecutor {
+    static final String PARALLELISM_PROPERTY = "hackerrank.parallelism";
+    static final String PIPELINE_PROPERTY = "hackerrank.pipeline";
+
+    /**
+     * The stack size of every thread that solves queries off the calling
+     * thread, the same as the SolverServer thread's, since solvers such
+     * as RoadsAndLibraries recurse deeply.
+     */
+    static final long STACK_SIZE = Long.getLong(SolverServer.STACK_SIZE_PROPERTY, SolverServer.DEFAULT_STACK_SIZE);
+
+    interface Parser<Q> {
+        Q parse(InputReader reader) throws IOException;
+    }
+
+    interface Printer<R> {
+        void print(OutputWriter writer, R result) throws IOException;
+    }
+
+    interface Solver<Q, R> {
+        R solve(Q query);
+    }
+
+    interface StreamingSolver<R> {
+        R solve(InputReader reader) throws IOException;
+    }
+
+    /**
+     * The stage threads of one pipelined run. The first stage to fail
+     * interrupts the others, and its failure is the one rethrown.
+     */
+    private static class Pipeline {
+        interface Stage {
+            void run() throws Exception;
+        }
+
+        // Queues refuse nulls, and some solvers answer null.
+        private static final Object NULL = new Object();
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        Pipeline() {
+            threads.add(Thread.currentThread());
+        }
+
+        /**
+         * Waits for every stage thread to finish, then rethrows the
+         * first failure, if any.
+         */
+        void await() throws IOException {
+            boolean interrupted = false;
+
+            for(Thread thread : threads) {
+                if(thread == Thread.currentThread()) continue;
+
+                while(thread.isAlive()) {
+                    try {
+                        thread.join();
+                    } catch(InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+
+            Throwable cause = failure.get();
+
+            // Interrupts sent to this thread by a failing stage are
+            // spent; only keep one that came from outside.
+            if(Thread.interrupted()) interrupted = true;
+            if(cause == null && interrupted) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while running pipeline");
+            }
+
+            if(cause == null)
+                return;
+            if(cause instanceof IOException)
+                throw (IOException) cause;
+            if(cause instanceof InterruptedException)
+                throw new InterruptedIOException("Interrupted while running pipeline");
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if(cause instanceof Error)
+                throw (Error) cause;
+
+            throw new IllegalStateException("Failed to run pipeline", cause);
+        }
+
+        void fail(Throwable cause) {
+            if(!failure.compareAndSet(null, cause)) return;
+
+            for(Thread thread : threads) {
+                if(thread != Thread.currentThread()) thread.interrupt();
+            }
+        }
+
+        static Object mask(Object value) {
+            return value == null ? NULL : value;
+        }
+
+        void start(String name, Stage stage) {
+            Thread thread = new Thread(null, () -> {
+                try {
+                    stage.run();
+                } catch(Throwable t) {
+                    fail(t);
+                }
+            }, name, STACK_SIZE);
+
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> T unmask(Object value) {
+            return value == NULL ? null : (T) value;
+        }
+    }
+
+    /**
+     * The one pool shared by every fork-join solver in the process,
+     * sized by hackerrank.parallelism when it is first used. Fork-join
+     * solvers split work in halves, so their recursion stays shallow.
+     * Its workers are daemons and idle between runs, so the pool is
+     * never shut down.
+     */
+    private static class SharedPool {
+        static final ForkJoinPool POOL = new ForkJoinPool(Integer.getInteger(PARALLELISM_PROPERTY, 1));
+    }
+
+    /**
+     * The one set of query workers shared by every parallel
+     * QueryExecutor in the process. Fork-join workers cannot be given a
+     * stack size, so these are plain threads with STACK_SIZE stacks,
+     * one per hackerrank.parallelism, or per processor if it is 0.
+     * They are daemons and idle between runs, so they are never shut
+     * down.
+     */
+    private static class SharedWorkers {
+        static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(workerCount(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(null, task, "query-worker-" + count.incrementAndGet(), STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        private static int workerCount() {
+            int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, 1);
+
+            return parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final Metrics.Phases phases;
+    private final int pipelineCapacity;
+
+    QueryExecutor(String solver, ExecutorService executor) {
+        this(solver, executor, 0);
+    }
+
+    private QueryExecutor(String solver, ExecutorService executor, int pipelineCapacity) {
+        this.executor = executor;
+        this.phases = Metrics.phases(solver);
+        this.pipelineCapacity = pipelineCapacity;
+    }
+
+    /**
+     * Picks an executor from the hackerrank.parallelism system property:
+     * unset or 1 runs sequentially, 0 uses one shared worker per
+     * processor and any larger value that many shared workers.
+     *
+     * When running sequentially, a positive hackerrank.pipeline sets the
+     * queue capacity of a pipelined run instead.
+     */
+    static QueryExecutor fromSystemProperties(String solver) {
+        int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, 1);
+
+        if(parallelism == 1) {
+            int pipelineCapacity = Integer.getInteger(PIPELINE_PROPERTY, 0);
+
+            return pipelineCapacity > 0
+                    ? pipelined(solver, pipelineCapacity)
+                    : sequential(solver);
+        }
+        return new QueryExecutor(solver, SharedWorkers.EXECUTOR);
+    }
+
+    /**
+     * The fork-join pool that hackerrank.parallelism asks for, or null
+     * if it asks for sequential solving. The pool is shared, so callers
+     * must not shut it down.
+     */
+    static ForkJoinPool poolFromSystemProperties() {
+        int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, 1);
+
+        if(parallelism == 1)
+            return null;
+        if(parallelism == 0)
+            return ForkJoinPool.commonPool();
+
+        return SharedPool.POOL;
+    }
+
+    /**
+     * True when each query is parsed, solved and printed in turn on the
+     * calling thread, so solvers may stream queries straight from the
+     * reader instead of parsing them into memory.
+     */
+    boolean isSequential() {
+        return executor == null && pipelineCapacity == 0;
+    }
+
+    /**
+     * The phase histograms, for solvers that stream queries themselves
+     * instead of going through execute.
+     */
+    Metrics.Phases phases() {
+        return phases;
+    }
+
+    static QueryExecutor pipelined(String solver, int capacity) {
+        if(capacity < 1)
+            throw new IllegalArgumentException("Pipeline capacity must be positive: " + capacity);
+
+        return new QueryExecutor(solver, null, capacity);
+    }
+
+    static QueryExecutor sequential(String solver) {
+        return new QueryExecutor(solver, null);
+    }
+
+    <Q, R> void execute(int numQueries,
+                        InputReader reader,
+                        OutputWriter writer,
+                        Parser<Q> parser,
+                        Solver<Q, R> solver,
+                        Printer<R> printer) throws IOException {
+        if(isSequential()) {
+            for(int i = 0; i < numQueries; i++) {
+                long started = Metrics.nanoTime();
+                Q query = parser.parse(reader);
+                phases.parse.recordSince(started);
+
+                started = Metrics.nanoTime();
+                R result = solver.solve(query);
+                phases.solve.recordSince(started);
+
+                started = Metrics.nanoTime();
+                printer.print(writer, result);
+                phases.write.recordSince(started);
+            }
+
+            return;
+        }
+
+        if(executor == null) {
+            executePipelined(numQueries, reader, writer, parser, solver, printer);
+            return;
+        }
+
+        List<Q> queries = new ArrayList<>(numQueries);
+
+        for(int i = 0; i < numQueries; i++) {
+            long started = Metrics.nanoTime();
+            queries.add(parser.parse(reader));
+            phases.parse.recordSince(started);
+        }
+
+        for(R result : solveAll(queries, solver)) {
+            long started = Metrics.nanoTime();
+            printer.print(writer, result);
+            phases.write.recordSince(started);
+        }
+    }
+
+    /**
+     * Like execute, but when running sequentially each query is solved
+     * straight from the reader by the streaming solver instead of being
+     * parsed first. Otherwise queries go through the parser and solver
+     * as in execute.
+     */
+    <Q, R> void execute(int numQueries,
+                        InputReader reader,
+                        OutputWriter writer,
+                        StreamingSolver<R> streamingSolver,
+                        Parser<Q> parser,
+                        Solver<Q, R> solver,
+                        Printer<R> printer) throws IOException {
+        if(isSequential()) {
+            stream(numQueries, reader, writer, streamingSolver, printer);
+            return;
+        }
+
+        execute(numQueries, reader, writer, parser, solver, printer);
+    }
+
+    private <Q, R> void executePipelined(int numQueries,
+                                         InputReader reader,
+                                         OutputWriter writer,
+                                         Parser<Q> parser,
+                                         Solver<Q, R> solver,
+                                         Printer<R> printer) throws IOException {
+        BlockingQueue<Object> parsed = new ArrayBlockingQueue<>(pipelineCapacity);
+        BlockingQueue<Object> solved = new ArrayBlockingQueue<>(pipelineCapacity);
+        Pipeline pipeline = new Pipeline();
+
+        pipeline.start("query-solver", () -> {
+            for(int i = 0; i < numQueries; i++) {
+                Q query = Pipeline.unmask(parsed.take());
+
+                long started = Metrics.nanoTime();
+                R result = solver.solve(query);
+                phases.solve.recordSince(started);
+
+                solved.put(Pipeline.mask(result));
+            }
+        });
+
+        pipeline.start("query-writer", () -> {
+            for(int i = 0; i < numQueries; i++) {
+                R result = Pipeline.unmask(solved.take());
+
+                long started = Metrics.nanoTime();
+                printer.print(writer, result);
+                phases.write.recordSince(started);
+            }
+        });
+
+        try {
+            for(int i = 0; i < numQueries; i++) {
+                long started = Metrics.nanoTime();
+                Q query = parser.parse(reader);
+                phases.parse.recordSince(started);
+
+                parsed.put(Pipeline.mask(query));
+            }
+        } catch(Throwable t) {
+            pipeline.fail(t);
+        }
+
+        pipeline.await();
+    }
+
+    /**
+     * Solves each query in turn straight from the reader, on the calling
+     * thread whatever the executor. The solver parses values as it
+     * consumes them and never materializes the query, so a query of any
+     * size takes constant memory, and its parse time is recorded as
+     * part of its solve time.
+     */
+    <R> void stream(int numQueries,
+                    InputReader reader,
+                    OutputWriter writer,
+                    StreamingSolver<R> solver,
+                    Printer<R> printer) throws IOException {
+        for(int i = 0; i < numQueries; i++) {
+            long started = Metrics.nanoTime();
+            R result = solver.solve(reader);
+            phases.solve.recordSince(started);
+
+            started = Metrics.nanoTime();
+            printer.print(writer, result);
+            phases.write.recordSince(started);
+        }
+    }
+
+    <Q, R> List<R> solveAll(List<Q> queries, Solver<Q, R> solver) throws IOException {
+        List<Callable<R>> tasks = new ArrayList<>(queries.size());
+
+        for(Q query : queries) {
+            tasks.add(() -> {
+                long started = Metrics.nanoTime();
+                R result = solver.solve(query);
+                phases.solve.recordSince(started);
+                return result;
+            });
+        }
+
+        List<R> results = new ArrayList<>(queries.size());
+
+        try {
+            // invokeAll hands back futures in task order, which is what
+            // keeps the output in the same order as the input.
+            for(Future<R> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while solving queries");
+        } catch(ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if(cause instanceof Error)
+                throw (Error) cause;
+
+            throw new IllegalStateException("Failed to solve query", cause);
+        }
+
+        return results;
+    }
+}
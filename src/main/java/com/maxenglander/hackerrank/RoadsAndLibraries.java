@@ -1,11 +1,44 @@
 package com.maxenglander.hackerrank;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.*;
 
 public class RoadsAndLibraries {
+    private static final Metrics.Phases PHASES = Metrics.phases("RoadsAndLibraries");
+    private static final Metrics.Counter DFS_NODES = Metrics.counter("RoadsAndLibraries.dfsNodes");
+
+    static class Query {
+        final int n;
+        final int c_lib;
+        final int c_road;
+        final int[][] cities;
+
+        Query(int n, int c_lib, int c_road, int[][] cities) {
+            this.n = n;
+            this.c_lib = c_lib;
+            this.c_road = c_road;
+            this.cities = cities;
+        }
+
+        static Query parse(InputReader reader) throws IOException {
+            int n = reader.nextInt();
+
+            int m = reader.nextInt();
+
+            int c_lib = reader.nextInt();
+
+            int c_road = reader.nextInt();
+
+            int[][] cities = new int[m][2];
+
+            for (int i = 0; i < m; i++) {
+                cities[i][0] = reader.nextInt();
+                cities[i][1] = reader.nextInt();
+            }
+
+            return new Query(n, c_lib, c_road, cities);
+        }
+    }
 
     /**
      * The cities need to be collected into "groups".
@@ -24,14 +57,23 @@ public class RoadsAndLibraries {
             return totalCost;
         }
 
+        long started = Metrics.nanoTime();
         Map<Integer, List<Integer>> adjacenciesByCity = buildAdjacenciesByCity(cities);
         boolean[] visits = buildVisits(n);
+        PHASES.build.recordSince(started);
+
         long totalCost = 0;
 
         for(int city = 0; city < n; city++) {
             if(!visits[city]) {
+                int adjacencies = countAdjacencies(city, adjacenciesByCity, visits);
+
+                // Counted per component rather than per node, to keep
+                // the recursion itself free of bookkeeping.
+                if(Metrics.ENABLED) DFS_NODES.add(1 + adjacencies);
+
                 totalCost += c_lib;
-                totalCost += c_road * countAdjacencies(city, adjacenciesByCity, visits);
+                totalCost += c_road * adjacencies;
             }
         }
 
@@ -81,45 +123,24 @@ public class RoadsAndLibraries {
         return count;
     }
 
-    private static final Scanner scanner = new Scanner(System.in);
+    static void run(InputReader reader, OutputWriter writer) throws IOException {
+        int q = reader.nextInt();
 
-    public static void main(String[] args) throws IOException {
-        BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(System.getenv("OUTPUT_PATH")));
-
-        int q = scanner.nextInt();
-        scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
-
-        for (int qItr = 0; qItr < q; qItr++) {
-            String[] nmC_libC_road = scanner.nextLine().split(" ");
-
-            int n = Integer.parseInt(nmC_libC_road[0]);
-
-            int m = Integer.parseInt(nmC_libC_road[1]);
-
-            int c_lib = Integer.parseInt(nmC_libC_road[2]);
-
-            int c_road = Integer.parseInt(nmC_libC_road[3]);
-
-            int[][] cities = new int[m][2];
-
-            for (int i = 0; i < m; i++) {
-                String[] citiesRowItems = scanner.nextLine().split(" ");
-                scanner.skip("(\r\n|[\n\r\u2028\u2029\u0085])?");
+        QueryExecutor.fromSystemProperties("RoadsAndLibraries").execute(q, reader, writer,
+                Query::parse,
+                query -> roadsAndLibraries(query.n, query.c_lib, query.c_road, query.cities),
+                (w, result) -> w.write(result).newLine());
+    }
 
-                for (int j = 0; j < 2; j++) {
-                    int citiesItem = Integer.parseInt(citiesRowItems[j]);
-                    cities[i][j] = citiesItem;
-                }
-            }
+    public static void main(String[] args) throws IOException {
+        OutputWriter writer = OutputWriter.fromEnvironment();
 
-            long result = roadsAndLibraries(n, c_lib, c_road, cities);
+        InputReader reader = InputReader.from(System.in);
 
-            bufferedWriter.write(String.valueOf(result));
-            bufferedWriter.newLine();
-        }
+        run(reader, writer);
 
-        bufferedWriter.close();
+        writer.close();
 
-        scanner.close();
+        reader.close();
     }
 }
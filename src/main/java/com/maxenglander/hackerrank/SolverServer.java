@@ -0,0 +1,226 @@
+package com.maxenglander.hackerrank;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Keeps every solver loaded and JIT-warm in one long-running JVM, so
+ * that solving an input costs microseconds rather than a JVM start.
+ *
+ *     SolverServer          serve requests framed on stdin/stdout
+ *     SolverServer <port>   serve requests on a loopback socket
+ *
+ * Each request is a header line naming the solver and giving the
+ * payload length in bytes, followed by the payload, which is exactly
+ * what the solver would otherwise read from stdin:
+ *
+ *     RoadsAndLibraries 27\n<27 bytes of input>
+ *
+ * Each response is a header line with OK or ERR and the result length,
+ * followed by the result bytes (or the error message):
+ *
+ *     OK 4\n<4 bytes of output>
+ *
+ * A request for the solver METRICS, with an empty payload, is answered
+ * with the current Metrics report.
+ *
+ * Requests are handled one at a time, because some solvers keep static
+ * caches that are not thread-safe. Multi-query payloads still honour
+ * -Dhackerrank.parallelism and -Dhackerrank.pipeline, on worker threads
+ * that are shared across requests.
+ */
+public class SolverServer {
+    interface Solver {
+        void run(InputReader reader, OutputWriter writer) throws IOException;
+    }
+
+    static final String METRICS_REQUEST = "METRICS";
+    static final long DEFAULT_STACK_SIZE = 512L * 1024 * 1024;
+    static final String STACK_SIZE_PROPERTY = "hackerrank.server.stackSize";
+    static final String WARMUP_PROPERTY = "hackerrank.server.warmup";
+
+    static final Map<String, Solver> SOLVERS = new LinkedHashMap<>();
+    static {
+        SOLVERS.put("AlternatingCharacters", AlternatingCharacters::run);
+        SOLVERS.put("BalancedBrackets", BalancedBrackets::run);
+        SOLVERS.put("BalancedForest", BalancedForest::run);
+        SOLVERS.put("CTCIBubbleSort", CTCIBubbleSort::run);
+        SOLVERS.put("CTCIFibonacciNumbers", CTCIFibonacciNumbers::run);
+        SOLVERS.put("CTCIIceCreamParlor", CTCIIceCreamParlor::run);
+        SOLVERS.put("CTCIRecursiveStaircase", CTCIRecursiveStaircase::run);
+        SOLVERS.put("CrosswordPuzzle", CrosswordPuzzle::run);
+        SOLVERS.put("LuckBalance", LuckBalance::run);
+        SOLVERS.put("MagicSquareForming", MagicSquareForming::run);
+        SOLVERS.put("MarkAndToys", MarkAndToys::run);
+        SOLVERS.put("MaxArraySum", MaxArraySum::run);
+        SOLVERS.put("RoadsAndLibraries", RoadsAndLibraries::run);
+    }
+
+    private SolverServer() {}
+
+    /**
+     * Reads one header line, or returns null if the stream ends
+     * cleanly before it starts.
+     */
+    private static String readHeader(InputStream input) throws IOException {
+        StringBuilder header = new StringBuilder();
+        int b = input.read();
+
+        if(b == -1) return null;
+
+        while(b != '\n') {
+            if(b == -1)
+                throw new EOFException("Stream ended inside a request header");
+
+            if(b != '\r') header.append((char) b);
+            b = input.read();
+        }
+
+        return header.toString();
+    }
+
+    private static void respond(OutputStream output, String status, byte[] body) throws IOException {
+        output.write((status + " " + body.length + "\n").getBytes(US_ASCII));
+        output.write(body);
+        output.flush();
+    }
+
+    static void serve(InputStream in, OutputStream out) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(in));
+        OutputStream output = new BufferedOutputStream(out);
+
+        String header;
+
+        while((header = readHeader(input)) != null) {
+            if(header.isEmpty()) continue;
+
+            String[] fields = header.trim().split(" ");
+            int length;
+
+            try {
+                length = fields.length == 2 ? Integer.parseInt(fields[1]) : -1;
+            } catch(NumberFormatException e) {
+                length = -1;
+            }
+
+            if(length < 0) {
+                // Without a length there is no way to find the next
+                // request, so give up on this stream.
+                respond(output, "ERR", ("Malformed request header: " + header).getBytes(UTF_8));
+                return;
+            }
+
+            byte[] payload = new byte[length];
+            input.readFully(payload);
+
+            if(fields[0].equals(METRICS_REQUEST)) {
+                respond(output, "OK", Metrics.report().getBytes(US_ASCII));
+                continue;
+            }
+
+            try {
+                respond(output, "OK", solve(fields[0], payload));
+            } catch(IOException | RuntimeException | StackOverflowError e) {
+                respond(output, "ERR", String.valueOf(e).getBytes(UTF_8));
+            }
+        }
+    }
+
+    private static void serve(int port) throws IOException {
+        try(ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            if(Diagnostics.INFO) Diagnostics.info("Listening on " + serverSocket.getLocalSocketAddress());
+
+            while(true) {
+                try(Socket socket = serverSocket.accept()) {
+                    serve(socket.getInputStream(), socket.getOutputStream());
+                } catch(IOException e) {
+                    if(Diagnostics.WARN) Diagnostics.warn("Connection failed: " + e);
+                }
+            }
+        }
+    }
+
+    static byte[] solve(String name, byte[] payload) throws IOException {
+        Solver solver = SOLVERS.get(name);
+
+        if(solver == null)
+            throw new IllegalArgumentException("Unknown solver: " + name);
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        OutputWriter writer = OutputWriter.to(result);
+
+        solver.run(InputReader.from(new ByteArrayInputStream(payload)), writer);
+
+        writer.close();
+
+        return result.toByteArray();
+    }
+
+    /**
+     * Runs every solver on small generated inputs so that the first real
+     * requests hit compiled code.
+     */
+    static void warmUp(int iterations) throws IOException {
+        Random random = new Random(42L);
+        InputGenerator.Spec spec = new InputGenerator.Spec(12, InputGenerator.Shape.RANDOM, 4);
+
+        for(Map.Entry<String, Solver> entry : SOLVERS.entrySet()) {
+            ByteArrayOutputStream input = new ByteArrayOutputStream();
+            OutputWriter writer = OutputWriter.to(input);
+            InputGenerator.GENERATORS.get(entry.getKey()).generate(spec, random, writer);
+            writer.close();
+
+            byte[] payload = input.toByteArray();
+
+            for(int i = 0; i < iterations; i++) {
+                solve(entry.getKey(), payload);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int warmup = Integer.getInteger(WARMUP_PROPERTY, 50);
+        Integer port = args.length > 0 ? Integer.valueOf(args[0]) : null;
+        Throwable[] failure = new Throwable[1];
+
+        // Serve from a thread with a deep stack: RoadsAndLibraries walks
+        // each component recursively. Parallel and pipelined queries are
+        // solved on threads with the same stack size.
+        Thread server = new Thread(null, () -> {
+            try {
+                warmUp(warmup);
+
+                if(port == null)
+                    serve(System.in, System.out);
+                else
+                    serve(port);
+            } catch(Throwable t) {
+                failure[0] = t;
+            }
+        }, "solver-server", QueryExecutor.STACK_SIZE);
+
+        server.start();
+        server.join();
+
+        if(failure[0] != null) {
+            if(failure[0] instanceof Exception) throw (Exception) failure[0];
+            throw (Error) failure[0];
+        }
+    }
+}
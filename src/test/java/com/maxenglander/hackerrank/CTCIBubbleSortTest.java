@@ -0,0 +1,203 @@
+package com.maxenglander.hackerrank;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks each way of counting swaps against the bubble sort the
+ * problem describes, on generated arrays.
+ */
+class CTCIBubbleSortTest {
+    private static final long[] SEEDS = { 1L, 2L, 3L };
+    private static final int SIZE = 3000;
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    private static int[] generated(InputGenerator.Shape shape, int size, long seed) throws IOException {
+        return CTCIBubbleSort.readerToIntArray(GeneratedInput.of("CTCIBubbleSort", shape, size, seed, 1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void inversionCounterMatchesBubbleSort(InputGenerator.Shape shape) throws IOException {
+        CTCIBubbleSort.InversionCounter counter = new CTCIBubbleSort.InversionCounter();
+
+        for(long seed : SEEDS) {
+            int[] expected = generated(shape, SIZE, seed);
+            int[] a = expected.clone();
+            long swaps = CTCIBubbleSort.bubbleSort(expected);
+
+            assertEquals(swaps, counter.sortAndCount(a), "seed " + seed);
+            assertArrayEquals(expected, a, "seed " + seed);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void parallelInversionCounterMatchesBubbleSort(InputGenerator.Shape shape) throws IOException {
+        // The default cutoff leaves SIZE to one task, so a small one is
+        // tried as well.
+        CTCIBubbleSort.ParallelInversionCounter[] counters = {
+                new CTCIBubbleSort.ParallelInversionCounter(pool),
+                new CTCIBubbleSort.ParallelInversionCounter(pool, 64)
+        };
+
+        for(long seed : SEEDS) {
+            int[] expected = generated(shape, SIZE, seed);
+            int[] a = expected.clone();
+            long swaps = CTCIBubbleSort.bubbleSort(expected);
+
+            for(CTCIBubbleSort.ParallelInversionCounter counter : counters) {
+                int[] sorted = a.clone();
+
+                assertEquals(swaps, counter.sortAndCount(sorted), "seed " + seed);
+                assertArrayEquals(expected, sorted, "seed " + seed);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void streamingInversionCounterMatchesBubbleSort(InputGenerator.Shape shape) throws IOException {
+        for(long seed : SEEDS) {
+            int[] a = generated(shape, SIZE, seed);
+            long[] runningSwaps = new long[a.length];
+            int[] seen = { 0 };
+
+            CTCIBubbleSort.StreamingInversionCounter counter = CTCIBubbleSort.streamSwaps(
+                    GeneratedInput.of("CTCIBubbleSort", shape, SIZE, seed, 1),
+                    (swaps, first, last) -> runningSwaps[seen[0]++] = swaps);
+
+            int[] sorted = a.clone();
+
+            assertEquals(CTCIBubbleSort.bubbleSort(sorted), counter.getInversions(), "seed " + seed);
+            assertEquals(sorted[0], counter.getFirst(), "seed " + seed);
+            assertEquals(sorted[sorted.length - 1], counter.getLast(), "seed " + seed);
+
+            // Each running count is the swap count of the prefix so far.
+            for(int length = 1; length <= a.length; length += 97) {
+                assertEquals(CTCIBubbleSort.bubbleSort(Arrays.copyOf(a, length)), runningSwaps[length - 1],
+                        "seed " + seed + ", length " + length);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void windowSwapsMatchBubbleSort(InputGenerator.Shape shape) throws IOException {
+        for(long seed : SEEDS) {
+            int[] generated = generated(shape, 600, seed);
+
+            // The same array folded onto a few values, so that windows
+            // hold many equal elements.
+            int[] folded = Arrays.stream(generated).map(value -> value % 16).toArray();
+
+            for(int[] a : new int[][] { generated, folded }) {
+                for(int window : new int[] { 1, 2, 50, a.length, a.length + 1 }) {
+                    List<Long> expected = new ArrayList<>();
+
+                    for(int from = 0; from + window <= a.length; from++) {
+                        expected.add(CTCIBubbleSort.bubbleSort(Arrays.copyOfRange(a, from, from + window)));
+                    }
+
+                    List<Long> swaps = new ArrayList<>();
+                    CTCIBubbleSort.forEachWindowSwaps(a, window, swaps::add);
+
+                    assertEquals(expected, swaps, "seed " + seed + ", window " + window);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void externalInversionCounterMatchesBubbleSort(InputGenerator.Shape shape, @TempDir Path directory) throws IOException {
+        for(long seed : SEEDS) {
+            int[] a = generated(shape, SIZE, seed);
+            Path file = directory.resolve("ints-" + seed);
+
+            try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                for(int value : a) {
+                    output.writeInt(value);
+                }
+            }
+
+            int[] sorted = a.clone();
+            long swaps = CTCIBubbleSort.bubbleSort(sorted);
+
+            // From dozens of runs, the last one short, to a single run.
+            // Every run is mapped separately, so runs of a few elements
+            // would only measure how many mappings the process allows.
+            for(int runLength : new int[] { 64, 1000, SIZE, SIZE + 1 }) {
+                CTCIBubbleSort.ExternalInversionCounter counter = new CTCIBubbleSort.ExternalInversionCounter(runLength, directory);
+                String message = "seed " + seed + ", run length " + runLength;
+
+                assertEquals(swaps, counter.count(file), message);
+                assertEquals(sorted[0], counter.getFirst(), message);
+                assertEquals(sorted[sorted.length - 1], counter.getLast(), message);
+            }
+        }
+    }
+
+    /**
+     * BUBBLE_PASSES is VectorBubblePasses under -Pvector, and the
+     * scalar passes again otherwise.
+     */
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void bubblePassesMatchBubbleSort(InputGenerator.Shape shape) throws IOException {
+        CTCIBubbleSort.BubblePasses[] passes = { new CTCIBubbleSort.ScalarBubblePasses(), CTCIBubbleSort.BUBBLE_PASSES };
+        Random random = new Random(SEEDS[0]);
+
+        for(long seed : SEEDS) {
+            int[] a = generated(shape, SIZE, seed);
+
+            for(CTCIBubbleSort.BubblePasses pass : passes) {
+                for(int trial = 0; trial < 100; trial++) {
+                    int from = random.nextInt(a.length);
+                    int to = from + 1 + random.nextInt(a.length - from);
+                    int descent = from;
+
+                    while(descent < to - 1 && a[descent] <= a[descent + 1]) {
+                        descent++;
+                    }
+
+                    assertEquals(descent, pass.firstDescent(a, from, to), "seed " + seed + ", [" + from + ", " + to + ")");
+                }
+
+                int[] expected = a.clone();
+                int[] sorted = a.clone();
+
+                assertEquals(CTCIBubbleSort.bubbleSort(expected), CTCIBubbleSort.bubbleSort(sorted, pass), "seed " + seed);
+                assertArrayEquals(expected, sorted, "seed " + seed);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.maxenglander.hackerrank;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks each way of searching the costs against the sequential
+ * findFlavors, on generated queries.
+ */
+class CTCIIceCreamParlorTest {
+    private static final long SEED = 42L;
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    /**
+     * The generated budget, which has exactly one pair, and random ones
+     * that may have any number. Like FlavorIndex, this assumes that two
+     * costs add up without overflowing an int, so sums that would are
+     * replaced with small budgets.
+     */
+    private static int[] budgets(CTCIIceCreamParlor.Query query, Random random) {
+        int[] moneys = new int[16];
+        moneys[0] = query.money;
+
+        for(int i = 1; i < moneys.length; i++) {
+            long sum = (long) query.costs[random.nextInt(query.costs.length)]
+                    + query.costs[random.nextInt(query.costs.length)];
+
+            moneys[i] = i % 2 == 0 && sum <= Integer.MAX_VALUE ? (int) sum : random.nextInt(200002);
+        }
+
+        return moneys;
+    }
+
+    /**
+     * Tries every combination of k ids in lexicographic order, so the
+     * first one that costs money is the one FlavorCombinations reports.
+     */
+    private static int[] firstCombination(int[] costs, int money, int[] ids, int depth, int from) {
+        if(depth == ids.length) {
+            long total = 0;
+
+            for(int id : ids) {
+                total += costs[id - 1];
+            }
+
+            return total == money ? ids.clone() : null;
+        }
+
+        for(int id = from; id <= costs.length; id++) {
+            ids[depth] = id;
+
+            int[] found = firstCombination(costs, money, ids, depth + 1, id + 1);
+
+            if(found != null) return found;
+        }
+
+        return null;
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void flavorCombinationsMatchBruteForce(InputGenerator.Shape shape) throws IOException {
+        Random random = new Random(SEED);
+
+        for(CTCIIceCreamParlor.Query query : GeneratedInput.iceCreamQueries(shape, 30, SEED, 4)) {
+            int[] costs = query.costs;
+
+            for(int k = 3; k <= 5; k++) {
+                for(int trial = 0; trial < 4; trial++) {
+                    long money = 0;
+
+                    // Half the budgets are the total of k random flavors,
+                    // so that most of them have an answer.
+                    if(trial % 2 == 0) {
+                        money = random.nextInt(400000);
+                    } else {
+                        for(int i = 0; i < k; i++) {
+                            money += costs[random.nextInt(costs.length)];
+                        }
+                    }
+
+                    if(money > Integer.MAX_VALUE) continue;
+
+                    int[] expected = firstCombination(costs, (int) money, new int[k], 0, 1);
+                    String message = "k " + k + ", money " + money;
+
+                    assertArrayEquals(expected, CTCIIceCreamParlor.FlavorCombinations.find(costs, (int) money, k), message);
+                    assertArrayEquals(expected, CTCIIceCreamParlor.FlavorCombinations.find(costs, (int) money, k, pool), message);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void flavorIndexMatchesFindFlavors(InputGenerator.Shape shape) throws IOException {
+        Random random = new Random(SEED);
+
+        for(CTCIIceCreamParlor.Query query : GeneratedInput.iceCreamQueries(shape, 2000, SEED, 4)) {
+            CTCIIceCreamParlor.FlavorIndex index = CTCIIceCreamParlor.FlavorIndex.of(query.costs);
+            int[] moneys = budgets(query, random);
+            int[][] flavorIds = index.findFlavors(moneys);
+
+            for(int i = 0; i < moneys.length; i++) {
+                int[] expected = CTCIIceCreamParlor.findFlavors(query.costs, moneys[i]);
+
+                assertArrayEquals(expected, index.findFlavors(moneys[i]), "money " + moneys[i]);
+                assertArrayEquals(expected, flavorIds[i], "money " + moneys[i]);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void parallelFlavorFinderMatchesFindFlavors(InputGenerator.Shape shape) throws IOException {
+        // Past the prefix, so that the costs are scattered into buckets.
+        int size = 2 * CTCIIceCreamParlor.ParallelFlavorFinder.PREFIX;
+
+        for(CTCIIceCreamParlor.Query query : GeneratedInput.iceCreamQueries(shape, size, SEED, 1)) {
+            // The generated pair, wherever the shape puts it, and a
+            // budget below every pair, so that every bucket is searched
+            // to the end.
+            for(int money : new int[] { query.money, 2 }) {
+                assertArrayEquals(CTCIIceCreamParlor.findFlavors(query.costs, money),
+                        CTCIIceCreamParlor.findFlavors(query.costs, money, pool),
+                        "money " + money);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void directCostIndexMatchesHashedCostIndex(InputGenerator.Shape shape) throws IOException {
+        Random random = new Random(SEED);
+
+        for(CTCIIceCreamParlor.Query query : GeneratedInput.iceCreamQueries(shape, 2000, SEED, 4)) {
+            // Small enough that many costs land in the overflow index.
+            int money = random.nextInt(100000);
+            CTCIIceCreamParlor.CostIndex direct = new CTCIIceCreamParlor.DirectCostIndex(money);
+            CTCIIceCreamParlor.CostIndex hashed = new CTCIIceCreamParlor.HashedCostIndex(16);
+
+            for(int i = 0; i < query.costs.length; i++) {
+                int cost = query.costs[i];
+                int probe = random.nextBoolean() ? money - cost : query.costs[random.nextInt(i + 1)];
+
+                assertEquals(hashed.idOf(probe), direct.idOf(probe), "cost " + probe);
+
+                direct.put(cost, i + 1);
+                hashed.put(cost, i + 1);
+            }
+        }
+    }
+
+    /**
+     * Every pair of flavors that costs money, as (id, partnerId), later
+     * id first, ordered the way forEachFlavorPair hands them out.
+     */
+    private static List<List<Integer>> allPairs(int[] costs, int money) {
+        List<List<Integer>> pairs = new ArrayList<>();
+
+        for(int i = 0; i < costs.length; i++) {
+            for(int j = i - 1; j >= 0; j--) {
+                if((long) costs[i] + costs[j] == money)
+                    pairs.add(List.of(i + 1, j + 1));
+            }
+        }
+
+        return pairs;
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void pairCountsAndEnumerationMatchBruteForce(InputGenerator.Shape shape) throws IOException {
+        Random random = new Random(SEED);
+
+        for(CTCIIceCreamParlor.Query query : GeneratedInput.iceCreamQueries(shape, 1000, SEED, 4)) {
+            for(int money : budgets(query, random)) {
+                List<List<Integer>> expected = allPairs(query.costs, money);
+                List<List<Integer>> pairs = new ArrayList<>();
+
+                CTCIIceCreamParlor.forEachFlavorPair(query.costs, money,
+                        (id, partnerId) -> pairs.add(List.of(id, partnerId)));
+
+                assertEquals(expected, pairs, "money " + money);
+                assertEquals(expected.size(), CTCIIceCreamParlor.countFlavorPairs(query.costs, money), "money " + money);
+            }
+        }
+
+        // The streaming count reads the same queries as they come.
+        InputReader reader = GeneratedInput.of("CTCIIceCreamParlor", shape, 1000, SEED, 4);
+        reader.nextInt();
+
+        for(CTCIIceCreamParlor.Query query : GeneratedInput.iceCreamQueries(shape, 1000, SEED, 4)) {
+            int money = reader.nextInt();
+            int n = reader.nextInt();
+
+            assertEquals(allPairs(query.costs, money).size(), CTCIIceCreamParlor.countFlavorPairs(reader, n, money));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void windowedFlavorFinderMatchesBruteForce(InputGenerator.Shape shape) throws IOException {
+        Random random = new Random(SEED);
+
+        for(CTCIIceCreamParlor.Query query : GeneratedInput.iceCreamQueries(shape, 1000, SEED, 2)) {
+            int[] costs = query.costs;
+
+            for(int window : new int[] { 2, 7, 100, costs.length }) {
+                for(int money : budgets(query, random)) {
+                    List<List<Integer>> expected = new ArrayList<>();
+
+                    // Each flavor pairs with its latest partner among
+                    // the window - 1 flavors before it.
+                    for(int i = 0; i < costs.length; i++) {
+                        for(int j = i - 1; j >= 0 && j > i - window; j--) {
+                            if((long) costs[i] + costs[j] == money) {
+                                expected.add(List.of(i + 1, j + 1));
+                                break;
+                            }
+                        }
+                    }
+
+                    List<List<Integer>> pairs = new ArrayList<>();
+                    CTCIIceCreamParlor.WindowedFlavorFinder finder = new CTCIIceCreamParlor.WindowedFlavorFinder(
+                            money, window, (id, partnerId) -> pairs.add(List.of(id, partnerId)));
+
+                    for(int cost : costs) {
+                        finder.accept(cost);
+                    }
+
+                    assertEquals(expected, pairs, "window " + window + ", money " + money);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.maxenglander.hackerrank;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reads back what InputGenerator writes, so that tests run on the same
+ * shapes as the benchmarks.
+ */
+class GeneratedInput {
+    private GeneratedInput() {}
+
+    static InputReader of(String problem, InputGenerator.Shape shape, int size, long seed, int queries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputWriter writer = OutputWriter.to(bytes);
+
+        InputGenerator.GENERATORS.get(problem)
+                .generate(new InputGenerator.Spec(size, shape, queries), new Random(seed), writer);
+
+        writer.close();
+
+        return InputReader.from(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    static List<CTCIIceCreamParlor.Query> iceCreamQueries(InputGenerator.Shape shape, int size, long seed, int queries) throws IOException {
+        InputReader reader = of("CTCIIceCreamParlor", shape, size, seed, queries);
+        List<CTCIIceCreamParlor.Query> parsed = new ArrayList<>();
+
+        for(int t = reader.nextInt(); t > 0; t--) {
+            parsed.add(CTCIIceCreamParlor.Query.parse(reader));
+        }
+
+        return parsed;
+    }
+}
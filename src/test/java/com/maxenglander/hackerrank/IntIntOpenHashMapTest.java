@@ -0,0 +1,68 @@
+package com.maxenglander.hackerrank;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the map against a HashMap under a random mix of operations,
+ * with generated ice cream costs as keys. The ADVERSARIAL costs all
+ * land in one probe run, so removals shift long runs back.
+ */
+class IntIntOpenHashMapTest {
+    private static final long SEED = 42L;
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void matchesHashMap(InputGenerator.Shape shape) throws IOException {
+        Random random = new Random(SEED);
+        int[] costs = GeneratedInput.iceCreamQueries(shape, 3000, SEED, 1).get(0).costs;
+
+        // Few enough distinct keys that they keep coming back after
+        // they are removed, and zero, which is kept to one side.
+        int[] keys = new int[257];
+
+        for(int i = 1; i < keys.length; i++) {
+            keys[i] = costs[random.nextInt(costs.length)];
+        }
+
+        IntIntOpenHashMap map = new IntIntOpenHashMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for(int step = 0; step < 100000; step++) {
+            int key = keys[random.nextInt(keys.length)];
+            int value = random.nextInt(1000) + 1;
+            String message = "step " + step + ", key " + key;
+
+            switch(random.nextInt(4)) {
+                case 0:
+                    Integer previous = expected.put(key, value);
+                    assertEquals(previous == null ? -1 : previous, map.put(key, value, -1), message);
+                    break;
+                case 1:
+                    Integer removed = expected.remove(key);
+                    assertEquals(removed == null ? -1 : removed, map.remove(key, -1), message);
+                    break;
+                case 2:
+                    int sum = expected.merge(key, value, Integer::sum);
+                    assertEquals(sum, map.addTo(key, value), message);
+                    break;
+                default:
+                    assertEquals(expected.getOrDefault(key, -1), map.get(key, -1), message);
+                    assertEquals(expected.containsKey(key), map.containsKey(key), message);
+            }
+
+            assertEquals(expected.size(), map.size(), message);
+        }
+
+        for(int key : keys) {
+            assertEquals(expected.getOrDefault(key, -1), map.get(key, -1), "key " + key);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.maxenglander.hackerrank;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the luck balance against one that sorts the important luck,
+ * on generated contests.
+ */
+class LuckBalanceTest {
+    private static final long[] SEEDS = { 1L, 2L, 3L };
+    private static final int SIZE = 2000;
+
+    private static class Generated {
+        final int losableImportantContests;
+        final int[][] contests;
+
+        Generated(int losableImportantContests, int[][] contests) {
+            this.losableImportantContests = losableImportantContests;
+            this.contests = contests;
+        }
+    }
+
+    private static Generated generated(InputGenerator.Shape shape, long seed) throws IOException {
+        InputReader reader = GeneratedInput.of("LuckBalance", shape, SIZE, seed, 1);
+        int n = reader.nextInt();
+        int k = reader.nextInt();
+        int[][] contests = new int[n][2];
+
+        for(int i = 0; i < n; i++) {
+            contests[i][0] = reader.nextInt();
+            contests[i][1] = reader.nextInt();
+        }
+
+        return new Generated(k, contests);
+    }
+
+    /**
+     * Wins the important contests with the least luck, found by sorting.
+     */
+    private static long sortedLuckBalance(int losableImportantContests, int[][] contests) {
+        long balance = 0;
+        int[] importantLuck = new int[contests.length];
+        int numImportantContests = 0;
+
+        for(int[] contest : contests) {
+            balance += contest[0];
+
+            if(contest[1] == 1) importantLuck[numImportantContests++] = contest[0];
+        }
+
+        Arrays.sort(importantLuck, 0, numImportantContests);
+
+        for(int i = 0; i < numImportantContests - losableImportantContests; i++) {
+            balance -= 2L * importantLuck[i];
+        }
+
+        return balance;
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void luckBalanceMatchesSorting(InputGenerator.Shape shape) throws IOException {
+        for(long seed : SEEDS) {
+            Generated generated = generated(shape, seed);
+            int[][] contests = generated.contests;
+
+            for(int k : new int[] { generated.losableImportantContests, 0, 1, contests.length / 2, contests.length }) {
+                assertEquals(sortedLuckBalance(k, contests), LuckBalance.luckBalance(k, contests),
+                        "seed " + seed + ", k " + k);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void selectPartitionsAroundTheSortedValue(InputGenerator.Shape shape) throws IOException {
+        Random random = new Random(SEEDS[0]);
+
+        for(long seed : SEEDS) {
+            int[] luck = Arrays.stream(generated(shape, seed).contests).mapToInt(contest -> contest[0]).toArray();
+
+            int[] sorted = luck.clone();
+            Arrays.sort(sorted);
+
+            for(int rank : new int[] { 0, random.nextInt(luck.length), luck.length - 1 }) {
+                int[] a = luck.clone();
+                String message = "seed " + seed + ", rank " + rank;
+
+                LuckBalance.select(a, rank);
+
+                assertEquals(sorted[rank], a[rank], message);
+
+                for(int i = 0; i < a.length; i++) {
+                    assertTrue(i < rank ? a[i] <= a[rank] : a[i] >= a[rank], message + ", index " + i);
+                }
+
+                Arrays.sort(a);
+                assertArrayEquals(sorted, a, message);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void dynamicLuckBalanceMatchesRecomputing(InputGenerator.Shape shape) throws IOException {
+        Random random = new Random(SEEDS[0]);
+
+        for(long seed : SEEDS) {
+            Generated generated = generated(shape, seed);
+            int k = generated.losableImportantContests;
+            List<int[]> contests = new ArrayList<>(Arrays.asList(generated.contests));
+            LuckBalance.DynamicLuckBalance balance = LuckBalance.DynamicLuckBalance.from(k, generated.contests);
+
+            for(int step = 0; step < 1000; step++) {
+                int operation = random.nextInt(3);
+
+                if(operation == 0 || contests.isEmpty()) {
+                    int[] contest = { random.nextInt(LuckBalance.MAX_LUCK + 1), random.nextInt(2) };
+
+                    contests.add(contest);
+                    balance.insert(contest[0], contest[1] == 1);
+                } else if(operation == 1) {
+                    int[] contest = contests.remove(random.nextInt(contests.size()));
+
+                    balance.remove(contest[0], contest[1] == 1);
+                } else {
+                    k = random.nextInt(contests.size() + 1);
+
+                    balance.setK(k);
+                }
+
+                assertEquals(sortedLuckBalance(k, contests.toArray(new int[0][])), balance.getBalance(),
+                        "seed " + seed + ", step " + step);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(InputGenerator.Shape.class)
+    void dynamicLuckBalanceRejectsMissingContests(InputGenerator.Shape shape) throws IOException {
+        int[][] contests = generated(shape, SEEDS[0]).contests;
+        LuckBalance.DynamicLuckBalance balance = LuckBalance.DynamicLuckBalance.from(0, contests);
+        boolean[] importantLuck = new boolean[LuckBalance.MAX_LUCK + 1];
+
+        for(int[] contest : contests) {
+            if(contest[1] == 1) {
+                importantLuck[contest[0]] = true;
+            } else {
+                balance.remove(contest[0], false);
+            }
+        }
+
+        int missingLuck = 0;
+
+        while(importantLuck[missingLuck]) {
+            missingLuck++;
+        }
+
+        int luck = missingLuck;
+
+        assertThrows(IllegalArgumentException.class, () -> balance.remove(0, false));
+        assertThrows(IllegalArgumentException.class, () -> balance.remove(luck, true));
+        assertThrows(IllegalArgumentException.class, () -> balance.remove(LuckBalance.MAX_LUCK + 1, true));
+    }
+}
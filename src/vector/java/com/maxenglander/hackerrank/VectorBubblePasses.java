@@ -0,0 +1,37 @@
+package com.maxenglander.hackerrank;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Finds descents with the incubating Vector API, comparing a whole
+ * vector of elements with their right-hand neighbours at once, so that
+ * sorted stretches are skipped a vector at a time.
+ *
+ * Only compiled with -Pvector. Only CTCIBubbleSort.bubblePasses()
+ * loads this class, and only when the jdk.incubator.vector module is
+ * present, so that nothing else depends on the incubator module being
+ * resolved.
+ */
+class VectorBubblePasses implements CTCIBubbleSort.BubblePasses {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public int firstDescent(int[] a, int from, int to) {
+        int i = from;
+
+        // Each step reads a[i..i + length], so stop while that is in range.
+        for(; i + SPECIES.length() < to; i += SPECIES.length()) {
+            IntVector left = IntVector.fromArray(SPECIES, a, i);
+            IntVector right = IntVector.fromArray(SPECIES, a, i + 1);
+            VectorMask<Integer> descents = left.compare(VectorOperators.GT, right);
+
+            if(descents.anyTrue())
+                return i + descents.firstTrue();
+        }
+
+        return CTCIBubbleSort.ScalarBubblePasses.scan(a, i, to);
+    }
+}